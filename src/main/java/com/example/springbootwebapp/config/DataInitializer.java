@@ -1,42 +1,66 @@
 package com.example.springbootwebapp.config;
 
+import com.example.springbootwebapp.model.ChangeType;
 import com.example.springbootwebapp.model.Role;
 import com.example.springbootwebapp.model.User;
+import com.example.springbootwebapp.model.UserChange;
+import com.example.springbootwebapp.repository.UserChangeRepository;
 import com.example.springbootwebapp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+//Demo accounts, only with app.seed.demo-users=true. The flag is read when the runner runs rather
+//than through a bean condition, so it still works in an AOT build where conditions are fixed.
 @Configuration
 public class DataInitializer {
     
+    private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
+    
+    //Precomputed BCrypt hashes (cost 10) of admin123 and user123: seeding does no hashing. Like any
+    //other stored hash, they are rehashed on first login if the configured cost is higher than 10.
+    private static final List<User> DEMO_USERS = List.of(
+            demoUser("admin", "admin@example.com", "$2b$10$i68Z8/KyrW6RuKDAlKgrwe.4SQRh0Ug31qalzV9DlhnBcvEiY8Dgq",
+                    "Admin User", Role.ADMIN),
+            demoUser("user", "user@example.com", "$2b$10$JRysjBoXnjxk/D6kO3baf.Hb1MsWrFmDXoEHb/JC1ZvMFeVn0h65W",
+                    "Regular User", Role.USER));
+    
     @Bean
-    public CommandLineRunner initData(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public CommandLineRunner initData(UserRepository userRepository, UserChangeRepository changeRepository,
+                                      @Value("${app.seed.demo-users:false}") boolean seedDemoUsers) {
         return args -> {
-            //Create admin user if not exists
-            if (!userRepository.existsByUsername("admin")) {
-                User admin = new User();
-                admin.setUsername("admin");
-                admin.setEmail("admin@example.com");
-                admin.setPassword(passwordEncoder.encode("admin123"));
-                admin.setFullName("Admin User");
-                admin.setRole(Role.ADMIN);
-                userRepository.save(admin);
-                System.out.println("Admin user created - username: admin, password: admin123");
+            if (!seedDemoUsers) {
+                return;
             }
-            
-            //Create regular user if not exists
-            if (!userRepository.existsByUsername("user")) {
-                User user = new User();
-                user.setUsername("user");
-                user.setEmail("user@example.com");
-                user.setPassword(passwordEncoder.encode("user123"));
-                user.setFullName("Regular User");
-                user.setRole(Role.USER);
-                userRepository.save(user);
-                System.out.println("Regular user created - username: user, password: user123");
+            //One query for both accounts; nothing else runs once they exist
+            Set<String> existing = Set.copyOf(userRepository.findExistingUsernames(
+                    DEMO_USERS.stream().map(User::getUsername).toList()));
+            for (User template : DEMO_USERS) {
+                if (existing.contains(template.getUsername())) {
+                    continue;
+                }
+                User user = userRepository.save(demoUser(template.getUsername(), template.getEmail(),
+                        template.getPassword(), template.getFullName(), template.getRole()));
+                changeRepository.save(new UserChange(ChangeType.REGISTERED, user, Instant.now()));
+                log.info("Demo user created - username: {}", user.getUsername());
             }
         };
     }
+    
+    private static User demoUser(String username, String email, String passwordHash, String fullName, Role role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPassword(passwordHash);
+        user.setFullName(fullName);
+        user.setRole(role);
+        return user;
+    }
 }
@@ -0,0 +1,163 @@
+package com.example.springbootwebapp.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.csrf.CsrfToken;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+//Serves the anonymous page shells (home, login, register) from pre-rendered bytes. The first plain
+//GET of each view renders it once with a placeholder CSRF token; later requests write the cached
+//bytes around the request's own (masked) token instead of running the template again. Requests
+//with a query string or flash attributes (?error, ?logout, "Registration successful") and any
+//non-GET render go through the normal view.
+public class PageShellViewResolver implements ViewResolver, Ordered {
+    
+    //Letters only, so template escaping leaves it untouched
+    private static final String TOKEN_PLACEHOLDER = "PageShellCsrfTokenPlaceholderQxZvWk";
+    
+    private final ViewResolver delegate;
+    private final Set<String> viewNames;
+    private final Map<String, PageShell> shells = new ConcurrentHashMap<>();
+    
+    public PageShellViewResolver(ViewResolver delegate, Set<String> viewNames) {
+        this.delegate = delegate;
+        this.viewNames = viewNames;
+    }
+    
+    @Override
+    public View resolveViewName(String viewName, Locale locale) throws Exception {
+        if (!viewNames.contains(viewName)) {
+            return null;
+        }
+        View view = delegate.resolveViewName(viewName, locale);
+        return view == null ? null : new PageShellView(viewName, view);
+    }
+    
+    //Ahead of the Thymeleaf resolver so the content-negotiating resolver picks this view first
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 10;
+    }
+    
+    public void clear() {
+        shells.clear();
+    }
+    
+    //Any parameter (query string, or form body on a GET) may change what the template renders
+    //(e.g. ?error on /login), so only parameterless requests are served from the shell
+    private static boolean isPlainGet(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod())
+                && request.getParameterMap().isEmpty()
+                && CollectionUtils.isEmpty(RequestContextUtils.getInputFlashMap(request));
+    }
+    
+    private class PageShellView implements View {
+        
+        private final String viewName;
+        private final View view;
+        
+        PageShellView(String viewName, View view) {
+            this.viewName = viewName;
+            this.view = view;
+        }
+        
+        @Override
+        public String getContentType() {
+            return view.getContentType();
+        }
+        
+        @Override
+        public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response)
+                throws Exception {
+            if (!isPlainGet(request)) {
+                view.render(model, request, response);
+                return;
+            }
+            CsrfToken token = (CsrfToken) request.getAttribute(CsrfToken.class.getName());
+            PageShell shell = shells.get(viewName);
+            if (shell == null) {
+                shell = capture(model, request, response, token);
+                shells.putIfAbsent(viewName, shell);
+            }
+            response.setContentType(shell.contentType());
+            shell.write(token == null ? "" : token.getToken(), response);
+        }
+        
+        private PageShell capture(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response,
+                                  CsrfToken token) throws Exception {
+            HttpServletRequest renderRequest = token == null ? request : new PlaceholderTokenRequest(request,
+                    new DefaultCsrfToken(token.getHeaderName(), token.getParameterName(), TOKEN_PLACEHOLDER));
+            ContentCachingResponseWrapper buffer = new ContentCachingResponseWrapper(response);
+            view.render(model, renderRequest, buffer);
+            Charset charset = Charset.forName(buffer.getCharacterEncoding());
+            return PageShell.of(buffer.getContentType(), new String(buffer.getContentAsByteArray(), charset), charset);
+        }
+    }
+    
+    //Rendered bytes split at each token occurrence
+    private record PageShell(String contentType, List<byte[]> segments, Charset charset, int length) {
+        
+        static PageShell of(String contentType, String html, Charset charset) {
+            List<byte[]> segments = new ArrayList<>();
+            int start = 0;
+            int index;
+            while ((index = html.indexOf(TOKEN_PLACEHOLDER, start)) >= 0) {
+                segments.add(html.substring(start, index).getBytes(charset));
+                start = index + TOKEN_PLACEHOLDER.length();
+            }
+            segments.add(html.substring(start).getBytes(charset));
+            int length = segments.stream().mapToInt(segment -> segment.length).sum();
+            return new PageShell(contentType, List.copyOf(segments), charset, length);
+        }
+        
+        void write(String token, HttpServletResponse response) throws IOException {
+            byte[] tokenBytes = token.getBytes(charset);
+            response.setContentLength(length + tokenBytes.length * (segments.size() - 1));
+            OutputStream out = response.getOutputStream();
+            for (int i = 0; i < segments.size(); i++) {
+                if (i > 0) {
+                    out.write(tokenBytes);
+                }
+                out.write(segments.get(i));
+            }
+        }
+    }
+    
+    //Hides the real token from the template so that it is not baked into the shared bytes
+    private static class PlaceholderTokenRequest extends HttpServletRequestWrapper {
+        
+        private final CsrfToken placeholder;
+        
+        PlaceholderTokenRequest(HttpServletRequest request, CsrfToken placeholder) {
+            super(request);
+            this.placeholder = placeholder;
+        }
+        
+        @Override
+        public Object getAttribute(String name) {
+            if (CsrfToken.class.getName().equals(name) || placeholder.getParameterName().equals(name)) {
+                return placeholder;
+            }
+            return super.getAttribute(name);
+        }
+    }
+}
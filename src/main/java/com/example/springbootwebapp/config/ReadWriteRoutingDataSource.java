@@ -0,0 +1,34 @@
+package com.example.springbootwebapp.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+//Sends @Transactional(readOnly = true) work to the replica and everything else (writes, work
+//outside a transaction, Flyway) to the primary. Must sit behind a LazyConnectionDataSourceProxy:
+//the transaction manager asks for a connection before the read-only flag is bound to the thread,
+//and the proxy defers the real checkout until the first statement.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    
+    enum Route {
+        PRIMARY, REPLICA
+    }
+    
+    private final ReplicaStickiness stickiness;
+    
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaStickiness stickiness) {
+        this.stickiness = stickiness;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return readOnly && !stickiness.isCurrentUserPinned() ? Route.REPLICA : Route.PRIMARY;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.springbootwebapp.config;
+
+import com.example.springbootwebapp.event.UserRegisteredEvent;
+import com.example.springbootwebapp.event.UserUpdatedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+//Read-your-writes over an asynchronous replica: for a short window after a user's change commits,
+//that user's read-only transactions stay on the primary. The window is per node; a user whose next
+//request lands on another node may still see the replica's older copy until it catches up.
+public class ReplicaStickiness {
+    
+    private final Cache<String, Boolean> pinnedUsers;
+    
+    //Set while reading on behalf of a user who is not (yet) the signed-in one, e.g. the sign-in lookup
+    private final ThreadLocal<String> readingFor = new ThreadLocal<>();
+    
+    public ReplicaStickiness(Duration window, long maximumSize) {
+        this.pinnedUsers = window.isZero() || window.isNegative() ? null : Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(window)
+                .build();
+    }
+    
+    public void pin(String username) {
+        if (pinnedUsers != null && username != null) {
+            pinnedUsers.put(username, Boolean.TRUE);
+        }
+    }
+    
+    public boolean isPinned(String username) {
+        return pinnedUsers != null && username != null && pinnedUsers.getIfPresent(username) != null;
+    }
+    
+    //Runs the read as if username were signed in, so logging in right after signing up finds the
+    //account on the primary even though the request itself is still anonymous
+    public <T> T readFor(String username, Supplier<T> read) {
+        String previous = readingFor.get();
+        readingFor.set(username);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                readingFor.remove();
+            } else {
+                readingFor.set(previous);
+            }
+        }
+    }
+    
+    //The user being read for, or else the signed-in user of the current request, if any
+    public boolean isCurrentUserPinned() {
+        if (pinnedUsers == null) {
+            return false;
+        }
+        String username = readingFor.get();
+        if (username != null) {
+            return isPinned(username);
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return false;
+        }
+        return isPinned(authentication.getName());
+    }
+    
+    //After commit, so the window starts when the change can first be replicated
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        pin(event.getUsername());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserUpdated(UserUpdatedEvent event) {
+        pin(event.getUsername());
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.springbootwebapp.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+//Background jobs: the change feed publisher and the statistics reconcile. The tests switch them
+//off and call the jobs directly, since every cached test context shares one in-memory database.
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -1,17 +1,48 @@
 package com.example.springbootwebapp.config;
 
+import com.example.springbootwebapp.security.BCryptCostCalibrator;
+import com.example.springbootwebapp.security.BoundedPasswordEncoder;
+import com.example.springbootwebapp.security.HashingAwareAuthenticationFailureHandler;
+import com.example.springbootwebapp.security.LoginThrottle;
+import com.example.springbootwebapp.security.LoginThrottleFilter;
+import com.example.springbootwebapp.security.SignedCookieSecurityContextRepository;
+import com.example.springbootwebapp.security.SignedTokenCodec;
 import com.example.springbootwebapp.service.CustomUserDetailsService;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.DelegatingAuthenticationEntryPoint;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.LoginUrlAuthenticationEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
+import org.springframework.security.web.savedrequest.NullRequestCache;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 
 @Configuration
 @EnableWebSecurity
@@ -24,26 +55,52 @@ public class SecurityConfig {
         this.userDetailsService = userDetailsService;
     }
     
+    //Actuator endpoints: health is public, the rest (Prometheus) needs an ADMIN account over HTTP
+    //Basic so scrapers can authenticate without a login form or session
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http,
+            ObjectProvider<LoginThrottle> loginThrottle) throws Exception {
+        http
+            .securityMatcher(EndpointRequest.toAnyEndpoint())
+            .authorizeHttpRequests(authorize -> authorize
+                .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                .anyRequest().hasRole("ADMIN")
+            )
+            .httpBasic(Customizer.withDefaults())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .csrf(csrf -> csrf.disable());
+        
+        //Basic credentials are a sign-in attempt too and share the form login's budgets
+        loginThrottle.ifAvailable(throttle -> http.addFilterBefore(LoginThrottleFilter.forHttpBasic(throttle),
+                BasicAuthenticationFilter.class));
+        
+        return http.build();
+    }
+    
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+            ObjectProvider<SignedCookieSecurityContextRepository> statelessContextRepository,
+            ObjectProvider<LoginThrottle> loginThrottle) throws Exception {
         http
             .authorizeHttpRequests(authorize -> authorize
                 .requestMatchers("/", "/register", "/css/**", "/js/**", "/h2-console/**").permitAll()
-                .requestMatchers("/admin/**").hasRole("ADMIN")
+                .requestMatchers("/admin/**", "/api/users/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
+            .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(authenticationEntryPoint()))
             .formLogin(form -> form
                 .loginPage("/login")
                 .loginProcessingUrl("/login")
                 .defaultSuccessUrl("/profile", true)
-                .failureUrl("/login?error=true")
+                .failureHandler(new HashingAwareAuthenticationFailureHandler("/login?error=true"))
                 .permitAll()
             )
             .logout(logout -> logout
                 .logoutUrl("/logout")
                 .logoutSuccessUrl("/login?logout=true")
                 .invalidateHttpSession(true)
-                .deleteCookies("JSESSIONID")
+                .deleteCookies("JSESSIONID", SignedCookieSecurityContextRepository.COOKIE_NAME)
                 .permitAll()
             )
             .csrf(csrf -> csrf
@@ -53,19 +110,75 @@ public class SecurityConfig {
                 .frameOptions(frameOptions -> frameOptions.sameOrigin())
             );
         
+        //Over-limit sign-in attempts are turned away before the authentication filter runs
+        loginThrottle.ifAvailable(throttle -> http.addFilterBefore(new LoginThrottleFilter(throttle, "/login"),
+                UsernamePasswordAuthenticationFilter.class));
+        
+        //Stateless mode: login, CSRF token and nothing else live in cookies, so no node needs the
+        //session of another and no saved request is kept between the login redirect hops
+        SignedCookieSecurityContextRepository contextRepository = statelessContextRepository.getIfAvailable();
+        if (contextRepository != null) {
+            http
+                .securityContext(context -> context.securityContextRepository(contextRepository))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .requestCache(cache -> cache.requestCache(new NullRequestCache()))
+                .csrf(csrf -> csrf.csrfTokenRepository(new CookieCsrfTokenRepository()));
+        }
+        
         return http.build();
     }
     
+    //Pages redirect to the login form; API clients get a 401 to act on instead. Spelled out because
+    //with several default entry points registered, the first one would also take every other request.
+    private static AuthenticationEntryPoint authenticationEntryPoint() {
+        LinkedHashMap<RequestMatcher, AuthenticationEntryPoint> entryPoints = new LinkedHashMap<>();
+        entryPoints.put(new AntPathRequestMatcher("/api/**"), new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED));
+        DelegatingAuthenticationEntryPoint entryPoint = new DelegatingAuthenticationEntryPoint(entryPoints);
+        entryPoint.setDefaultEntryPoint(new LoginUrlAuthenticationEntryPoint("/login"));
+        return entryPoint;
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "app.security.stateless.enabled", havingValue = "true")
+    public SignedCookieSecurityContextRepository signedCookieSecurityContextRepository(
+            @Value("${app.security.stateless.keys:}") String keys,
+            @Value("${app.security.stateless.ttl:PT8H}") Duration ttl) {
+        return new SignedCookieSecurityContextRepository(SignedTokenCodec.fromProperty(keys, Clock.systemUTC()), ttl);
+    }
+    
+    //Per-IP and per-username token buckets in front of POST /login and actuator HTTP Basic; see LoginThrottle
+    @Bean
+    @ConditionalOnProperty(name = "app.security.login-throttle.enabled", havingValue = "true", matchIfMissing = true)
+    public LoginThrottle loginThrottle(@Value("${app.security.login-throttle.per-user.capacity:5}") int userCapacity,
+                                       @Value("${app.security.login-throttle.per-user.refill:PT1M}") Duration userRefill,
+                                       @Value("${app.security.login-throttle.per-ip.capacity:50}") int ipCapacity,
+                                       @Value("${app.security.login-throttle.per-ip.refill:PT1S}") Duration ipRefill,
+                                       @Value("${app.security.login-throttle.maximum-keys:100000}") long maximumKeys) {
+        return new LoginThrottle(new LoginThrottle.Limit(userCapacity, userRefill),
+                new LoginThrottle.Limit(ipCapacity, ipRefill), maximumKeys, Ticker.systemTicker());
+    }
+    
+    //BCrypt runs on its own capped pool rather than on request threads; 0 means one thread per core.
+    //A strength of 0 calibrates the cost at startup against the target hash time.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(@Value("${app.security.hashing.pool-size:0}") int poolSize,
+                                                 @Value("${app.security.hashing.queue-capacity:64}") int queueCapacity,
+                                                 @Value("${app.security.hashing.timeout:PT3S}") Duration timeout,
+                                                 @Value("${app.security.bcrypt.strength:0}") int strength,
+                                                 @Value("${app.security.bcrypt.target-time:80ms}") Duration targetTime) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        int cost = strength > 0 ? strength : BCryptCostCalibrator.calibrate(targetTime);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(cost), threads, queueCapacity, timeout);
     }
     
+    //Stored hashes weaker than the current cost are rewritten on the next successful login; stronger
+    //ones are kept, so nodes calibrated to different costs do not rewrite each other's hashes
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsService);
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
     
@@ -0,0 +1,54 @@
+package com.example.springbootwebapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.view.UrlBasedViewResolver;
+
+import java.util.concurrent.TimeUnit;
+
+//Times view rendering, which happens between postHandle and afterCompletion, per template name
+public class TemplateRenderTimingInterceptor implements HandlerInterceptor {
+    
+    private static final String START_ATTRIBUTE = TemplateRenderTimingInterceptor.class.getName() + ".start";
+    private static final String VIEW_ATTRIBUTE = TemplateRenderTimingInterceptor.class.getName() + ".view";
+    
+    private final MeterRegistry registry;
+    
+    public TemplateRenderTimingInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+    
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (modelAndView == null || modelAndView.getViewName() == null) {
+            return;
+        }
+        String viewName = modelAndView.getViewName();
+        if (viewName.startsWith(UrlBasedViewResolver.REDIRECT_URL_PREFIX)
+                || viewName.startsWith(UrlBasedViewResolver.FORWARD_URL_PREFIX)) {
+            return;
+        }
+        request.setAttribute(VIEW_ATTRIBUTE, viewName);
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (!(request.getAttribute(START_ATTRIBUTE) instanceof Long start)) {
+            return;
+        }
+        Timer.builder("app.template.render")
+                .description("Thymeleaf template rendering time")
+                .tag("template", (String) request.getAttribute(VIEW_ATTRIBUTE))
+                .tag("outcome", ex == null ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
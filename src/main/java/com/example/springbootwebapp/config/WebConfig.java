@@ -0,0 +1,67 @@
+package com.example.springbootwebapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    
+    //Optional so that MVC slice tests, which have no metrics, still start
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    
+    //Boot's switch for caching resolved resources; devtools turns it off so edited CSS gets a new hash
+    private final boolean cacheResources;
+    
+    public WebConfig(ObjectProvider<MeterRegistry> meterRegistry,
+                     @Value("${spring.web.resources.chain.cache:true}") boolean cacheResources) {
+        this.meterRegistry = meterRegistry;
+        this.cacheResources = cacheResources;
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        meterRegistry.ifAvailable(meters -> registry.addInterceptor(new TemplateRenderTimingInterceptor(meters)));
+    }
+    
+    //Templates link /css/style-<content hash>.css, so a file can be cached for a year and never
+    //revalidated: any edit changes its URL. A precompressed .gz sibling is served when accepted.
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        for (String directory : List.of("css", "js")) {
+            registry.addResourceHandler("/" + directory + "/**")
+                    .addResourceLocations("classpath:/static/" + directory + "/")
+                    .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                    .resourceChain(cacheResources)
+                    .addResolver(new EncodedResourceResolver())
+                    .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        }
+    }
+    
+    //Rewrites @{/css/...} links in rendered pages to their fingerprinted form
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "app.web.page-shells.enabled", havingValue = "true")
+    public PageShellViewResolver pageShellViewResolver(ThymeleafViewResolver thymeleafViewResolver) {
+        return new PageShellViewResolver(thymeleafViewResolver, Set.of("index", "login", "register"));
+    }
+}
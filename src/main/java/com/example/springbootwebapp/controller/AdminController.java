@@ -1,36 +1,158 @@
 package com.example.springbootwebapp.controller;
 
+import com.example.springbootwebapp.dto.ImportResult;
+import com.example.springbootwebapp.dto.UserChangeFeedPage;
+import com.example.springbootwebapp.dto.UserPage;
 import com.example.springbootwebapp.dto.UserResponse;
+import com.example.springbootwebapp.dto.UserSearchResult;
+import com.example.springbootwebapp.service.CustomUserDetailsService;
+import com.example.springbootwebapp.service.EntityCacheStatsService;
+import com.example.springbootwebapp.service.UserChangeFeedService;
+import com.example.springbootwebapp.service.UserDataFormat;
+import com.example.springbootwebapp.service.UserExportService;
+import com.example.springbootwebapp.service.UserImportService;
 import com.example.springbootwebapp.service.UserService;
+import com.example.springbootwebapp.service.UserStatsService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @Controller
 @RequestMapping("/admin")
 public class AdminController {
     
+    private static final int RECENT_USER_COUNT = 10;
+    
     private final UserService userService;
+    private final UserStatsService userStatsService;
+    private final CustomUserDetailsService userDetailsService;
+    private final UserImportService userImportService;
+    private final UserExportService userExportService;
+    private final EntityCacheStatsService entityCacheStatsService;
+    private final AdminTableCache adminTableCache;
+    private final UserChangeFeedService userChangeFeedService;
     
-    public AdminController(UserService userService) {
+    public AdminController(UserService userService, UserStatsService userStatsService,
+                           CustomUserDetailsService userDetailsService, UserImportService userImportService,
+                           UserExportService userExportService, EntityCacheStatsService entityCacheStatsService,
+                           AdminTableCache adminTableCache, UserChangeFeedService userChangeFeedService) {
         this.userService = userService;
+        this.userStatsService = userStatsService;
+        this.userDetailsService = userDetailsService;
+        this.userImportService = userImportService;
+        this.userExportService = userExportService;
+        this.entityCacheStatsService = entityCacheStatsService;
+        this.adminTableCache = adminTableCache;
+        this.userChangeFeedService = userChangeFeedService;
     }
     
     @GetMapping("/dashboard")
     public String adminDashboard(Model model) {
-        List<UserResponse> users = userService.getAllUsers();
-        model.addAttribute("users", users);
-        model.addAttribute("userCount", users.size());
+        AdminTableCache.RenderedTable<List<UserResponse>> recent = adminTableCache.get("dashboard:recent",
+                () -> userService.getRecentUsers(RECENT_USER_COUNT), Function.identity());
+        model.addAttribute("users", recent.data());
+        model.addAttribute("userRows", recent.rows());
+        model.addAttribute("userCount", userStatsService.getTotalUsers());
+        model.addAttribute("roleCounts", userStatsService.getRoleCounts());
+        model.addAttribute("userCacheStats", userDetailsService.getCacheStats());
+        model.addAttribute("entityCacheStats", entityCacheStatsService.getUserCacheStats());
         return "admin/dashboard";
     }
     
     @GetMapping("/users")
-    public String listUsers(Model model) {
-        List<UserResponse> users = userService.getAllUsers();
-        model.addAttribute("users", users);
+    public String listUsers(@RequestParam(defaultValue = "id") String sort,
+                            @RequestParam(defaultValue = "asc") String dir,
+                            @RequestParam(defaultValue = "" + UserService.DEFAULT_PAGE_SIZE) int size,
+                            @RequestParam(required = false) String after,
+                            @RequestParam(required = false) String before,
+                            @RequestParam(required = false) String q,
+                            @RequestParam(defaultValue = "0") int page,
+                            Model model, HttpServletRequest request, HttpServletResponse response) {
+        //Each query string is its own browser cache entry, so the table stamp alone validates it
+        if (ConditionalGet.notModified(request, response, "users", adminTableCache.changeStamp())) {
+            return null;
+        }
+        if (q != null && !q.isBlank()) {
+            UserSearchResult search = userService.searchUsers(q, page, size);
+            model.addAttribute("search", search);
+            model.addAttribute("users", search.getUsers());
+            model.addAttribute("userRows", adminTableCache.render(search.getUsers()));
+            return "admin/users";
+        }
+        //Search results are rendered per request; only the browsable listing is worth caching
+        String key = String.join(":", "users", sort, dir, String.valueOf(size),
+                String.valueOf(after), String.valueOf(before));
+        AdminTableCache.RenderedTable<UserPage> table = adminTableCache.get(key,
+                () -> userService.getUsersPage(sort, dir, size, after, before), UserPage::getUsers);
+        UserPage usersPage = table.data();
+        model.addAttribute("page", usersPage);
+        model.addAttribute("users", usersPage.getUsers());
+        model.addAttribute("userRows", table.rows());
         return "admin/users";
     }
+    
+    @GetMapping("/users/import")
+    public String importPage() {
+        return "admin/import";
+    }
+    
+    //Form upload; the multipart body is spooled to disk by the container, never held on the heap
+    @PostMapping(value = "/users/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public String importUsers(@RequestParam("file") MultipartFile file, Model model) throws IOException {
+        UserDataFormat format = UserDataFormat.detect(file.getContentType(), file.getOriginalFilename());
+        try (InputStream input = file.getInputStream()) {
+            model.addAttribute("result", userImportService.importUsers(input, format));
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("errorMessage", e.getMessage());
+        }
+        return "admin/import";
+    }
+    
+    //Scripted upload: a raw text/csv or application/x-ndjson body is read straight off the socket.
+    //A CSV header missing a required column rejects the whole upload, as the form does
+    @PostMapping(value = "/users/import", consumes = {"text/csv", "application/x-ndjson", "application/jsonl"})
+    @ResponseBody
+    public ResponseEntity<?> importUsersStream(HttpServletRequest request) throws IOException {
+        UserDataFormat format = UserDataFormat.detect(request.getContentType(), null);
+        try {
+            ImportResult result = userImportService.importUsers(request.getInputStream(), format);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/users/export")
+    public void exportUsers(@RequestParam(defaultValue = "csv") String format,
+                            HttpServletResponse response) throws IOException {
+        UserDataFormat dataFormat = UserDataFormat.fromParameter(format);
+        response.setContentType(dataFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"users." + dataFormat.getExtension() + "\"");
+        userExportService.exportUsers(dataFormat, response.getOutputStream());
+    }
+    
+    //Incremental sync: poll with the previous response's "next" until hasMore is false
+    @GetMapping(value = "/users/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public UserChangeFeedPage userChanges(@RequestParam(defaultValue = "0") long since,
+                                          @RequestParam(defaultValue = "" + UserChangeFeedService.DEFAULT_LIMIT) int limit) {
+        return userChangeFeedService.getChanges(since, limit);
+    }
 }
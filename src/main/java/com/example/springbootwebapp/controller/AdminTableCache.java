@@ -0,0 +1,92 @@
+package com.example.springbootwebapp.controller;
+
+import com.example.springbootwebapp.dto.UserResponse;
+import com.example.springbootwebapp.event.UserRegisteredEvent;
+import com.example.springbootwebapp.event.UserUpdatedEvent;
+import com.example.springbootwebapp.repository.UserChangeRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+//Caches the data behind an admin table together with its rendered <tr> rows, so a hit skips both
+//the query and the th:each. Entries are tagged with the change stamp read from the database before
+//loading, so a write committed on any instance turns them into misses; local writes also empty it.
+@Component
+public class AdminTableCache {
+    
+    private static final String ROWS_TEMPLATE = "admin/fragments/user-rows";
+    
+    private final TemplateEngine templateEngine;
+    private final UserChangeRepository changeRepository;
+    private final Cache<String, RenderedTable<?>> cache;
+    
+    public AdminTableCache(TemplateEngine templateEngine, UserChangeRepository changeRepository,
+                           ObjectProvider<MeterRegistry> meterRegistry,
+                           @Value("${app.admin.table-cache.maximum-size:500}") long maximumSize,
+                           @Value("${app.admin.table-cache.ttl:PT5M}") Duration ttl) {
+        this.templateEngine = templateEngine;
+        this.changeRepository = changeRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "admin-tables"));
+    }
+    
+    @SuppressWarnings("unchecked")
+    public <T> RenderedTable<T> get(String key, Supplier<T> loader, Function<T, List<UserResponse>> users) {
+        //Read before loading: an entry loaded while a write committed carries the old stamp and
+        //is treated as a miss even if it was stored after invalidateAll ran
+        String current = changeStamp();
+        RenderedTable<?> cached = cache.getIfPresent(key);
+        if (cached != null && cached.stamp().equals(current)) {
+            return (RenderedTable<T>) cached;
+        }
+        T data = loader.get();
+        RenderedTable<T> table = new RenderedTable<>(data, render(users.apply(data)), current);
+        cache.put(key, table);
+        return table;
+    }
+    
+    //Rows only: the markup is produced with th:text, so it is already escaped for th:utext
+    public String render(List<UserResponse> users) {
+        return templateEngine.process(ROWS_TEMPLATE, new Context(Locale.ROOT, Map.of("users", users)));
+    }
+    
+    //Changes whenever a user row is written, on any instance: the validator behind the admin list ETags
+    public String changeStamp() {
+        return changeRepository.findChangeStamp();
+    }
+    
+    public void invalidate() {
+        cache.invalidateAll();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        invalidate();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserUpdated(UserUpdatedEvent event) {
+        invalidate();
+    }
+    
+    public record RenderedTable<T>(T data, String rows, String stamp) {
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.springbootwebapp.controller;
 
 import com.example.springbootwebapp.dto.RegisterRequest;
+import com.example.springbootwebapp.security.PasswordHashingUnavailableException;
 import com.example.springbootwebapp.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -35,6 +39,7 @@ public class AuthController {
     public String register(@Valid @ModelAttribute("registerRequest") RegisterRequest request,
                           BindingResult bindingResult,
                           RedirectAttributes redirectAttributes,
+                          HttpServletResponse response,
                           Model model) {
         
         if (bindingResult.hasErrors()) {
@@ -45,6 +50,11 @@ public class AuthController {
             userService.registerUser(request);
             redirectAttributes.addFlashAttribute("successMessage", "Registration successful! Please login.");
             return "redirect:/login";
+        } catch (PasswordHashingUnavailableException e) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            model.addAttribute("errorMessage", "The server is busy. Please try again in a moment.");
+            return "register";
         } catch (RuntimeException e) {
             model.addAttribute("errorMessage", e.getMessage());
             return "register";
@@ -0,0 +1,67 @@
+package com.example.springbootwebapp.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+//Strong ETags for per-user pages, so an unchanged page is answered with 304 before the template
+//runs. The request cookies are folded in because they identify the login (session or signed
+//token) and CSRF token the page embeds: after a new login the browser's copy must not be reused.
+//The build is folded in too, because a deploy can change the markup while the data stays the same.
+final class ConditionalGet {
+    
+    //Private to the browser, which must ask again every time (instead of Spring Security's no-store)
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+    
+    private static final String BUILD = buildId();
+    
+    private ConditionalGet() {
+    }
+    
+    //True when the response has been completed as 304 Not Modified and the handler should return null
+    static boolean notModified(HttpServletRequest request, HttpServletResponse response, Object... versionParts) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        //A flash message (e.g. after a redirect) is not part of the cached copy
+        if (!CollectionUtils.isEmpty(RequestContextUtils.getInputFlashMap(request))) {
+            return false;
+        }
+        return new ServletWebRequest(request, response).checkNotModified(etag(request, versionParts));
+    }
+    
+    private static String etag(HttpServletRequest request, Object... versionParts) {
+        String cookies = String.join(";", Collections.list(request.getHeaders(HttpHeaders.COOKIE)));
+        String cookieHash = DigestUtils.md5DigestAsHex(cookies.getBytes(StandardCharsets.UTF_8)).substring(0, 12);
+        String version = Arrays.stream(versionParts).map(String::valueOf).collect(Collectors.joining("-"));
+        return "\"" + BUILD + "-" + version + "-" + cookieHash + "\"";
+    }
+    
+    //Same on every instance running one artifact; without build info (e.g. run from the IDE) it
+    //falls back to a per-process value, so ETags handed out before a restart never match
+    private static String buildId() {
+        try {
+            Properties build = PropertiesLoaderUtils.loadAllProperties("META-INF/build-info.properties");
+            String time = build.getProperty("build.time");
+            if (time != null) {
+                String id = build.getProperty("build.version", "") + "@" + time;
+                return DigestUtils.md5DigestAsHex(id.getBytes(StandardCharsets.UTF_8)).substring(0, 8);
+            }
+        } catch (IOException e) {
+            //Fall through to the per-process id
+        }
+        return Long.toHexString(ThreadLocalRandom.current().nextLong());
+    }
+}
@@ -3,7 +3,10 @@ package com.example.springbootwebapp.controller;
 import com.example.springbootwebapp.dto.ProfileUpdateRequest;
 import com.example.springbootwebapp.dto.UserResponse;
 import com.example.springbootwebapp.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -23,13 +26,20 @@ public class ProfileController {
     }
     
     @GetMapping("/profile")
-    public String profilePage(Authentication authentication, Model model) {
+    public String profilePage(Authentication authentication, Model model,
+                              HttpServletRequest request, HttpServletResponse response) {
         String username = authentication.getName();
         UserResponse user = userService.getUserByUsername(username);
         
+        //The lookup is served from the entity cache, so an unchanged profile costs no query and no render
+        if (ConditionalGet.notModified(request, response, "profile", user.getId(), user.getVersion())) {
+            return null;
+        }
+        
         ProfileUpdateRequest updateRequest = new ProfileUpdateRequest();
         updateRequest.setFullName(user.getFullName());
         updateRequest.setEmail(user.getEmail());
+        updateRequest.setVersion(user.getVersion());
         
         model.addAttribute("user", user);
         model.addAttribute("profileUpdateRequest", updateRequest);
@@ -55,6 +65,13 @@ public class ProfileController {
             userService.updateProfile(username, request);
             redirectAttributes.addFlashAttribute("successMessage", "Profile updated successfully!");
             return "redirect:/profile";
+        } catch (ObjectOptimisticLockingFailureException e) {
+            //Show what changed and rebase the form on it, so submitting again is a deliberate overwrite
+            UserResponse user = userService.getUserByUsername(authentication.getName());
+            request.setVersion(user.getVersion());
+            model.addAttribute("user", user);
+            model.addAttribute("errorMessage", e.getMessage());
+            return "profile";
         } catch (RuntimeException e) {
             String username = authentication.getName();
             UserResponse user = userService.getUserByUsername(username);
@@ -0,0 +1,113 @@
+package com.example.springbootwebapp.controller;
+
+import com.example.springbootwebapp.dto.ProfileUpdateRequest;
+import com.example.springbootwebapp.dto.UserPage;
+import com.example.springbootwebapp.dto.UserResponse;
+import com.example.springbootwebapp.service.DuplicateUserException;
+import com.example.springbootwebapp.service.UserField;
+import com.example.springbootwebapp.service.UserJsonWriter;
+import com.example.springbootwebapp.service.UserNotFoundException;
+import com.example.springbootwebapp.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.groups.Default;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+//Machine API over the same service calls as the profile and admin pages. Responses are written
+//with the streaming generator and carry only the properties named in ?fields= (all by default).
+@RestController
+@RequestMapping("/api")
+public class UserApiController {
+    
+    private final UserService userService;
+    private final UserJsonWriter userJsonWriter;
+    
+    public UserApiController(UserService userService, UserJsonWriter userJsonWriter) {
+        this.userService = userService;
+        this.userJsonWriter = userJsonWriter;
+    }
+    
+    @GetMapping("/profile")
+    public void profile(@RequestParam(required = false) String fields, Authentication authentication,
+                        HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Set<UserField> selected = UserField.parse(fields);
+        UserResponse user = userService.getUserByUsername(authentication.getName());
+        
+        //The selection is part of the representation, so it is part of the ETag too (as a bitmask)
+        int selection = selected.stream().mapToInt(field -> 1 << field.ordinal()).sum();
+        if (ConditionalGet.notModified(request, response, "api-profile", user.getId(), user.getVersion(), selection)) {
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        userJsonWriter.writeUser(user, selected, response.getOutputStream());
+    }
+    
+    //The version from the last GET is required: the update is rejected if someone changed the profile since
+    @PutMapping(value = "/profile", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public UserResponse updateProfile(@Validated({Default.class, ProfileUpdateRequest.Versioned.class})
+                                      @RequestBody ProfileUpdateRequest request, Authentication authentication) {
+        return userService.updateProfile(authentication.getName(), request);
+    }
+    
+    //Keyset-paginated like /admin/users: pass "next" (or "previous") back as after (or before)
+    @GetMapping("/users")
+    public void users(@RequestParam(defaultValue = "username") String sort,
+                      @RequestParam(defaultValue = "asc") String dir,
+                      @RequestParam(defaultValue = "" + UserService.DEFAULT_PAGE_SIZE) int size,
+                      @RequestParam(required = false) String after,
+                      @RequestParam(required = false) String before,
+                      @RequestParam(required = false) String fields,
+                      HttpServletResponse response) throws IOException {
+        Set<UserField> selected = UserField.parse(fields);
+        UserPage page = userService.getUsersPage(sort, dir, size, after, before);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        userJsonWriter.writePage(page, selected, response.getOutputStream());
+    }
+    
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<Map<String, String>> invalidRequest(MethodArgumentNotValidException e) {
+        FieldError error = e.getBindingResult().getFieldError();
+        String message = error != null ? error.getDefaultMessage() : "Invalid request";
+        return ResponseEntity.badRequest().body(Map.of("error", message));
+    }
+    
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> staleVersion(ObjectOptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+    }
+    
+    //Only UserField.parse throws these here, naming the one field it rejected
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> invalidParameter(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+    
+    @ExceptionHandler(DuplicateUserException.class)
+    public ResponseEntity<Map<String, String>> duplicateUser(DuplicateUserException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+    }
+    
+    //A valid login whose account has since been removed
+    @ExceptionHandler(UserNotFoundException.class)
+    public ResponseEntity<Map<String, String>> userNotFound(UserNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+    }
+}
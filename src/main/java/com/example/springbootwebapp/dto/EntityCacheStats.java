@@ -0,0 +1,46 @@
+package com.example.springbootwebapp.dto;
+
+public class EntityCacheStats {
+    
+    private final long hitCount;
+    private final long missCount;
+    private final long putCount;
+    private final long naturalIdHitCount;
+    private final long naturalIdMissCount;
+    
+    //Constructors
+    public EntityCacheStats(long hitCount, long missCount, long putCount,
+                            long naturalIdHitCount, long naturalIdMissCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.putCount = putCount;
+        this.naturalIdHitCount = naturalIdHitCount;
+        this.naturalIdMissCount = naturalIdMissCount;
+    }
+    
+    //Getters
+    public long getHitCount() {
+        return hitCount;
+    }
+    
+    public long getMissCount() {
+        return missCount;
+    }
+    
+    public long getPutCount() {
+        return putCount;
+    }
+    
+    public long getNaturalIdHitCount() {
+        return naturalIdHitCount;
+    }
+    
+    public long getNaturalIdMissCount() {
+        return naturalIdMissCount;
+    }
+    
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+}
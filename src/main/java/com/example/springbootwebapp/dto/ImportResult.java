@@ -0,0 +1,42 @@
+package com.example.springbootwebapp.dto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class ImportResult {
+    
+    //Only the first errors are kept so a completely broken file cannot exhaust the heap
+    public static final int MAX_REPORTED_ERRORS = 1000;
+    
+    private long importedCount;
+    private long failedCount;
+    private final List<ImportRowError> errors = new ArrayList<>();
+    
+    public void addImported(long count) {
+        importedCount += count;
+    }
+    
+    public void addError(long lineNumber, String username, String message) {
+        failedCount++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new ImportRowError(lineNumber, username, message));
+        }
+    }
+    
+    public long getImportedCount() {
+        return importedCount;
+    }
+    
+    public long getFailedCount() {
+        return failedCount;
+    }
+    
+    public List<ImportRowError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+    
+    public boolean isErrorsTruncated() {
+        return failedCount > errors.size();
+    }
+}
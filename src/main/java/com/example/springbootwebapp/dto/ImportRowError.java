@@ -0,0 +1,26 @@
+package com.example.springbootwebapp.dto;
+
+public class ImportRowError {
+    
+    private final long lineNumber;
+    private final String username;
+    private final String message;
+    
+    public ImportRowError(long lineNumber, String username, String message) {
+        this.lineNumber = lineNumber;
+        this.username = username;
+        this.message = message;
+    }
+    
+    public long getLineNumber() {
+        return lineNumber;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.springbootwebapp.dto;
 
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 
 public class ProfileUpdateRequest {
     
@@ -12,6 +13,11 @@ public class ProfileUpdateRequest {
     @Email(message = "Email should be valid")
     private String email;
     
+    //Version of the profile the form was rendered from. Required from API clients, which are
+    //validated with the Versioned group as well: without it the stale check is skipped.
+    @NotNull(message = "Version is required", groups = Versioned.class)
+    private Long version;
+    
     //Constructors
     public ProfileUpdateRequest() {
     }
@@ -21,6 +27,9 @@ public class ProfileUpdateRequest {
         this.email = email;
     }
     
+    public interface Versioned {
+    }
+    
     //Getters and Setters
     public String getFullName() {
         return fullName;
@@ -37,4 +46,12 @@ public class ProfileUpdateRequest {
     public void setEmail(String email) {
         this.email = email;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,32 @@
+package com.example.springbootwebapp.dto;
+
+import java.util.List;
+
+//One poll of the change feed. Pass next as ?since= on the following poll; it equals the request's
+//since when nothing new has been published.
+public class UserChangeFeedPage {
+    
+    private final List<UserChangeResponse> changes;
+    private final long next;
+    private final boolean hasMore;
+    
+    //Constructors
+    public UserChangeFeedPage(List<UserChangeResponse> changes, long next, boolean hasMore) {
+        this.changes = changes;
+        this.next = next;
+        this.hasMore = hasMore;
+    }
+    
+    //Getters
+    public List<UserChangeResponse> getChanges() {
+        return changes;
+    }
+    
+    public long getNext() {
+        return next;
+    }
+    
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.springbootwebapp.dto;
+
+import com.example.springbootwebapp.model.ChangeType;
+import com.example.springbootwebapp.model.Role;
+
+import java.time.Instant;
+
+public class UserChangeResponse {
+    
+    private Long position;
+    private ChangeType type;
+    private Long userId;
+    private String username;
+    private String email;
+    private String fullName;
+    private Role role;
+    private Instant changedAt;
+    
+    //Constructors
+    public UserChangeResponse() {
+    }
+    
+    public UserChangeResponse(Long position, ChangeType type, Long userId, String username, String email,
+                              String fullName, Role role, Instant changedAt) {
+        this.position = position;
+        this.type = type;
+        this.userId = userId;
+        this.username = username;
+        this.email = email;
+        this.fullName = fullName;
+        this.role = role;
+        this.changedAt = changedAt;
+    }
+    
+    //Getters
+    public Long getPosition() {
+        return position;
+    }
+    
+    public ChangeType getType() {
+        return type;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public String getFullName() {
+        return fullName;
+    }
+    
+    public Role getRole() {
+        return role;
+    }
+    
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.springbootwebapp.dto;
+
+import java.util.List;
+
+public class UserPage {
+    
+    private final List<UserResponse> users;
+    private final String sort;
+    private final String direction;
+    private final int size;
+    private final String nextCursor;
+    private final String previousCursor;
+    
+    //Constructors
+    public UserPage(List<UserResponse> users, String sort, String direction, int size,
+                    String nextCursor, String previousCursor) {
+        this.users = users;
+        this.sort = sort;
+        this.direction = direction;
+        this.size = size;
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
+    }
+    
+    //Getters
+    public List<UserResponse> getUsers() {
+        return users;
+    }
+    
+    public String getSort() {
+        return sort;
+    }
+    
+    public String getDirection() {
+        return direction;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public String getPreviousCursor() {
+        return previousCursor;
+    }
+    
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+    
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+}
@@ -9,6 +9,7 @@ public class UserResponse {
     private String email;
     private String fullName;
     private Role role;
+    private Long version;
     
     //Constructors
     public UserResponse() {
@@ -22,6 +23,11 @@ public class UserResponse {
         this.role = role;
     }
     
+    public UserResponse(Long id, String username, String email, String fullName, Role role, Long version) {
+        this(id, username, email, fullName, role);
+        this.version = version;
+    }
+    
     //Getters and Setters
     public Long getId() {
         return id;
@@ -62,4 +68,12 @@ public class UserResponse {
     public void setRole(Role role) {
         this.role = role;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,46 @@
+package com.example.springbootwebapp.dto;
+
+import java.util.List;
+
+public class UserSearchResult {
+    
+    private final String query;
+    private final List<UserResponse> users;
+    private final int page;
+    private final int size;
+    private final boolean hasNext;
+    
+    //Constructors
+    public UserSearchResult(String query, List<UserResponse> users, int page, int size, boolean hasNext) {
+        this.query = query;
+        this.users = users;
+        this.page = page;
+        this.size = size;
+        this.hasNext = hasNext;
+    }
+    
+    //Getters
+    public String getQuery() {
+        return query;
+    }
+    
+    public List<UserResponse> getUsers() {
+        return users;
+    }
+    
+    public int getPage() {
+        return page;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public boolean hasNext() {
+        return hasNext;
+    }
+    
+    public boolean hasPrevious() {
+        return page > 0;
+    }
+}
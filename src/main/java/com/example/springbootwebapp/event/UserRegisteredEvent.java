@@ -0,0 +1,22 @@
+package com.example.springbootwebapp.event;
+
+import com.example.springbootwebapp.model.Role;
+
+public class UserRegisteredEvent {
+    
+    private final String username;
+    private final Role role;
+    
+    public UserRegisteredEvent(String username, Role role) {
+        this.username = username;
+        this.role = role;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public Role getRole() {
+        return role;
+    }
+}
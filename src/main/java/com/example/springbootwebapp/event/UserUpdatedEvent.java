@@ -0,0 +1,14 @@
+package com.example.springbootwebapp.event;
+
+public class UserUpdatedEvent {
+    
+    private final String username;
+    
+    public UserUpdatedEvent(String username) {
+        this.username = username;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+}
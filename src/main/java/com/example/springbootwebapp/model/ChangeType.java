@@ -0,0 +1,6 @@
+package com.example.springbootwebapp.model;
+
+public enum ChangeType {
+    REGISTERED,
+    UPDATED
+}
@@ -0,0 +1,100 @@
+package com.example.springbootwebapp.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+//Outbox row: a snapshot of a user as of one committed change. feedPosition stays null until the
+//publisher numbers the row into the change feed.
+@Entity
+@Table(name = "user_changes")
+public class UserChange {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    private Long feedPosition;
+    
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false)
+    private ChangeType changeType;
+    
+    @Column(nullable = false)
+    private Long userId;
+    
+    @Column(nullable = false)
+    private String username;
+    
+    @Column(nullable = false)
+    private String email;
+    
+    @Column(nullable = false)
+    private String fullName;
+    
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false)
+    private Role role;
+    
+    @Column(nullable = false)
+    private Instant changedAt;
+    
+    //Constructors
+    public UserChange() {
+    }
+    
+    public UserChange(ChangeType changeType, User user, Instant changedAt) {
+        this.changeType = changeType;
+        this.userId = user.getId();
+        this.username = user.getUsername();
+        this.email = user.getEmail();
+        this.fullName = user.getFullName();
+        this.role = user.getRole();
+        this.changedAt = changedAt;
+    }
+    
+    //Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getFeedPosition() {
+        return feedPosition;
+    }
+    
+    public void setFeedPosition(Long feedPosition) {
+        this.feedPosition = feedPosition;
+    }
+    
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public String getFullName() {
+        return fullName;
+    }
+    
+    public Role getRole() {
+        return role;
+    }
+    
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.springbootwebapp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+//Single row holding the last position handed out. Publishers lock it for the whole numbering
+//transaction, which is what keeps feed positions gap-free in commit order.
+@Entity
+@Table(name = "user_change_feed")
+public class UserChangeFeed {
+    
+    public static final int ID = 1;
+    
+    @Id
+    private Integer id;
+    
+    @Column(nullable = false)
+    private long lastPosition;
+    
+    //Getters and Setters
+    public Integer getId() {
+        return id;
+    }
+    
+    public long getLastPosition() {
+        return lastPosition;
+    }
+    
+    public void setLastPosition(long lastPosition) {
+        this.lastPosition = lastPosition;
+    }
+}
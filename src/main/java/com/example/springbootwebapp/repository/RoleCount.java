@@ -0,0 +1,10 @@
+package com.example.springbootwebapp.repository;
+
+import com.example.springbootwebapp.model.Role;
+
+public interface RoleCount {
+    
+    Role getRole();
+    
+    Long getTotal();
+}
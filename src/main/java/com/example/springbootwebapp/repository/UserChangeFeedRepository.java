@@ -0,0 +1,17 @@
+package com.example.springbootwebapp.repository;
+
+import com.example.springbootwebapp.model.UserChangeFeed;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserChangeFeedRepository extends JpaRepository<UserChangeFeed, Integer> {
+    
+    //SELECT ... FOR UPDATE: one publisher at a time, across all nodes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM UserChangeFeed f WHERE f.id = " + UserChangeFeed.ID)
+    UserChangeFeed lock();
+}
@@ -0,0 +1,32 @@
+package com.example.springbootwebapp.repository;
+
+import com.example.springbootwebapp.dto.UserChangeResponse;
+import com.example.springbootwebapp.model.UserChange;
+import com.example.springbootwebapp.model.UserChangeFeed;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserChangeRepository extends JpaRepository<UserChange, Long> {
+    
+    //Outbox backlog in write order; the unique index on feed_position also covers the IS NULL filter
+    @Query("SELECT c FROM UserChange c WHERE c.feedPosition IS NULL ORDER BY c.id")
+    List<UserChange> findUnpublished(Limit limit);
+    
+    @Query("SELECT new com.example.springbootwebapp.dto.UserChangeResponse(c.feedPosition, c.changeType, c.userId,"
+            + " c.username, c.email, c.fullName, c.role, c.changedAt)"
+            + " FROM UserChange c WHERE c.feedPosition > :since ORDER BY c.feedPosition")
+    List<UserChangeResponse> findFeed(long since, Limit limit);
+    
+    //Two index lookups, however long the outbox grows. Every user write appends an outbox row in the
+    //same transaction, so the newest id moves as soon as a write commits on any instance; a row whose
+    //id is older than the newest one moves the feed position once the publisher numbers it.
+    @Query("SELECT CONCAT(CAST(f.lastPosition AS String), '.',"
+            + " CAST(COALESCE((SELECT MAX(c.id) FROM UserChange c), 0) AS String))"
+            + " FROM UserChangeFeed f WHERE f.id = " + UserChangeFeed.ID)
+    String findChangeStamp();
+}
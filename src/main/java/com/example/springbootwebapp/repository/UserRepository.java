@@ -1,13 +1,26 @@
 package com.example.springbootwebapp.repository;
 
+import com.example.springbootwebapp.dto.UserResponse;
 import com.example.springbootwebapp.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+    
+    String USER_RESPONSE = "new com.example.springbootwebapp.dto.UserResponse(u.id, u.username, u.email, u.fullName, u.role, u.version)";
     
     Optional<User> findByUsername(String username);
     
@@ -16,4 +29,39 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     
     boolean existsByEmail(String email);
+    
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(Collection<String> usernames);
+    
+    @Query("SELECT u.role AS role, COUNT(u) AS total FROM User u GROUP BY u.role")
+    List<RoleCount> countUsersByRole();
+    
+    //Read paths select straight into UserResponse: no managed entities to dirty-check, and the
+    //password hash never leaves the database
+    @Query("SELECT " + USER_RESPONSE + " FROM User u ORDER BY u.id")
+    List<UserResponse> findAllResponses();
+    
+    //Ids are assigned in insertion order, so the newest users are the highest ids
+    @Query("SELECT " + USER_RESPONSE + " FROM User u ORDER BY u.id DESC")
+    List<UserResponse> findRecentResponses(Limit limit);
+    
+    //Admin search over lower-cased columns; on PostgreSQL each LIKE is served by a pg_trgm GIN index
+    //(migration V3). Ranked exact username, then username prefix, then email/full name
+    //prefix, then any substring hit. Patterns must be lower-case with LIKE wildcards escaped by '\'.
+    @Query("SELECT " + USER_RESPONSE + " FROM User u"
+            + " WHERE lower(u.username) LIKE :contains ESCAPE '\\'"
+            + " OR lower(u.email) LIKE :contains ESCAPE '\\'"
+            + " OR lower(u.fullName) LIKE :contains ESCAPE '\\'"
+            + " ORDER BY CASE"
+            + " WHEN lower(u.username) = :term THEN 0"
+            + " WHEN lower(u.username) LIKE :prefix ESCAPE '\\' THEN 1"
+            + " WHEN lower(u.email) LIKE :prefix ESCAPE '\\' OR lower(u.fullName) LIKE :prefix ESCAPE '\\' THEN 2"
+            + " ELSE 3 END, u.username")
+    Slice<UserResponse> search(String term, String prefix, String contains, Pageable pageable);
+    
+    //Forward-only cursor for exports: rows arrive in fetch-size batches and are never all in memory.
+    //Must be consumed inside a transaction and closed.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT " + USER_RESPONSE + " FROM User u ORDER BY u.id")
+    Stream<UserResponse> streamAllResponses();
 }
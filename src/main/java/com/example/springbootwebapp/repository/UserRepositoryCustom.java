@@ -0,0 +1,19 @@
+package com.example.springbootwebapp.repository;
+
+import com.example.springbootwebapp.dto.UserResponse;
+import com.example.springbootwebapp.model.User;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+    
+    //Resolves username -> id through the natural-id cache and the entity through the second-level
+    //cache, so a warm lookup never reaches the database
+    Optional<User> findByNaturalUsername(String username);
+    
+    //Keyset pagination: up to limit users strictly after (or, walking backward, before) the
+    //row identified by lastValue/lastId. Backward pages come back in reverse display order.
+    List<UserResponse> findKeysetPage(UserSortField sortField, boolean ascending,
+                                      String lastValue, Long lastId, boolean backward, int limit);
+}
@@ -0,0 +1,84 @@
+package com.example.springbootwebapp.repository;
+
+import com.example.springbootwebapp.dto.UserResponse;
+import com.example.springbootwebapp.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    //Transactional so the session outlives the lookup even when the caller has no transaction
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByNaturalUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+    
+    @Override
+    public List<UserResponse> findKeysetPage(UserSortField sortField, boolean ascending,
+                                             String lastValue, Long lastId, boolean backward, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserResponse> query = cb.createQuery(UserResponse.class);
+        Root<User> user = query.from(User.class);
+        //Select straight into the DTO: no managed entities, and the password column is never read
+        query.select(cb.construct(UserResponse.class,
+                user.get("id"), user.get("username"), user.get("email"), user.get("fullName"), user.get("role"),
+                user.get("version")));
+        
+        //Walking backwards flips both the seek comparison and the ordering
+        boolean increasing = ascending != backward;
+        Path<Long> id = user.get("id");
+        
+        if (sortField == UserSortField.ID) {
+            if (lastId != null) {
+                query.where(increasing ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId));
+            }
+            query.orderBy(order(cb, id, increasing));
+        } else {
+            Path<String> key = user.get(sortField.getProperty());
+            if (lastId != null && lastValue != null) {
+                query.where(seekPredicate(cb, key, id, lastValue, lastId, increasing));
+            }
+            //id breaks ties so the ordering is total and cursors are stable
+            query.orderBy(order(cb, key, increasing), order(cb, id, increasing));
+        }
+        
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+    
+    private Predicate seekPredicate(CriteriaBuilder cb, Path<String> key, Path<Long> id,
+                                    String lastValue, Long lastId, boolean increasing) {
+        //Equivalent to (key, id) > (lastValue, lastId); the leading range condition on key
+        //lets the database seek on the sort column's index instead of scanning
+        if (increasing) {
+            return cb.and(
+                    cb.greaterThanOrEqualTo(key, lastValue),
+                    cb.or(cb.greaterThan(key, lastValue), cb.greaterThan(id, lastId)));
+        }
+        return cb.and(
+                cb.lessThanOrEqualTo(key, lastValue),
+                cb.or(cb.lessThan(key, lastValue), cb.lessThan(id, lastId)));
+    }
+    
+    private Order order(CriteriaBuilder cb, Path<?> path, boolean increasing) {
+        return increasing ? cb.asc(path) : cb.desc(path);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.springbootwebapp.repository;
+
+import com.example.springbootwebapp.dto.UserResponse;
+
+import java.util.function.Function;
+
+public enum UserSortField {
+    ID("id", user -> null),
+    USERNAME("username", UserResponse::getUsername),
+    EMAIL("email", UserResponse::getEmail),
+    FULL_NAME("fullName", UserResponse::getFullName);
+    
+    private final String property;
+    private final Function<UserResponse, String> extractor;
+    
+    UserSortField(String property, Function<UserResponse, String> extractor) {
+        this.property = property;
+        this.extractor = extractor;
+    }
+    
+    public String getProperty() {
+        return property;
+    }
+    
+    //Value of the sort column for the given row, null when sorting by id alone
+    public String valueOf(UserResponse user) {
+        return extractor.apply(user);
+    }
+    
+    public static UserSortField fromProperty(String property) {
+        for (UserSortField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        return ID;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.springbootwebapp.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+//Picks the highest BCrypt cost whose hash time on this host stays within a target
+public final class BCryptCostCalibrator {
+    
+    private static final Logger log = LoggerFactory.getLogger(BCryptCostCalibrator.class);
+    
+    //Never go below the BCryptPasswordEncoder default, whatever the hardware
+    public static final int MIN_STRENGTH = 10;
+    public static final int MAX_STRENGTH = 16;
+    
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+    private static final int SAMPLES = 2;
+    
+    private BCryptCostCalibrator() {
+    }
+    
+    public static int calibrate(Duration targetTime) {
+        long targetNanos = targetTime.toNanos();
+        
+        //Warm up the JIT so the first measurement is not inflated
+        new BCryptPasswordEncoder(4).encode(SAMPLE_PASSWORD);
+        
+        int strength = MIN_STRENGTH;
+        long elapsed = measure(strength);
+        //Each extra cost step doubles the work, so stop when the next step would overshoot
+        while (strength < MAX_STRENGTH && elapsed * 2 <= targetNanos) {
+            strength++;
+            elapsed = measure(strength);
+        }
+        
+        log.info("Calibrated BCrypt strength {} ({} ms per hash, target {} ms)",
+                strength, Duration.ofNanos(elapsed).toMillis(), targetTime.toMillis());
+        return strength;
+    }
+    
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.springbootwebapp.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+//Runs the (deliberately slow) delegate encoder on a fixed-size pool with a bounded queue, so hashing
+//can never occupy more than poolSize cores and callers are turned away quickly once the queue is full
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean, MeterBinder {
+    
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutNanos;
+    private final long retryAfterSeconds;
+    
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder timedOutCount = new LongAdder();
+    
+    //Null until bound to a registry; encode/match are then timed end to end, queue wait included,
+    //and the queue wait alone is recorded separately
+    private volatile Timer encodeTimer;
+    private volatile Timer matchTimer;
+    private volatile Timer queueWaitTimer;
+    
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int poolSize, int queueCapacity, Duration timeout) {
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutNanos = timeout.toNanos();
+        this.retryAfterSeconds = Math.max(1, timeout.toSeconds());
+    }
+    
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return timed(encodeTimer, () -> execute(() -> delegate.encode(rawPassword)));
+    }
+    
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return timed(matchTimer, () -> execute(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+    
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        encodeTimer = hashTimer("encode", registry);
+        matchTimer = hashTimer("match", registry);
+        queueWaitTimer = Timer.builder("app.password.hash.queue.wait")
+                .description("Time a hashing task spent queued before a hashing thread picked it up")
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder("app.password.hash.queue.depth", this, BoundedPasswordEncoder::getQueueDepth)
+                .description("Password hashing tasks waiting for a thread")
+                .register(registry);
+        Gauge.builder("app.password.hash.active", this, BoundedPasswordEncoder::getActiveCount)
+                .description("Password hashing threads currently busy")
+                .register(registry);
+        FunctionCounter.builder("app.password.hash.rejected", this, BoundedPasswordEncoder::getRejectedCount)
+                .description("Hashing requests turned away because the queue was full")
+                .register(registry);
+        FunctionCounter.builder("app.password.hash.timeouts", this, BoundedPasswordEncoder::getTimedOutCount)
+                .description("Hashing requests that gave up waiting for a result")
+                .register(registry);
+    }
+    
+    private Timer hashTimer(String operation, MeterRegistry registry) {
+        return Timer.builder("app.password.hash")
+                .description("Password hashing latency, including time queued for the hashing pool")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+    
+    private <T> T timed(Timer timer, Supplier<T> task) {
+        return timer != null ? timer.record(task) : task.get();
+    }
+    
+    private <T> T execute(Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                recordWait(System.nanoTime() - submittedAt);
+                return task.get();
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            throw new PasswordHashingUnavailableException("Password hashing queue is full", retryAfterSeconds, e);
+        }
+        
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            //Drops the task if it is still queued; a hash already running cannot be interrupted
+            future.cancel(true);
+            timedOutCount.increment();
+            throw new PasswordHashingUnavailableException("Password hashing timed out", retryAfterSeconds, e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException("Interrupted while waiting for password hashing",
+                    retryAfterSeconds, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+    
+    private void recordWait(long waitNanos) {
+        Timer timer = queueWaitTimer;
+        if (timer != null) {
+            timer.record(waitNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    //Metrics
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+    
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+    
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+    
+    public long getTimedOutCount() {
+        return timedOutCount.sum();
+    }
+    
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+    
+    private static class HashingThreadFactory implements ThreadFactory {
+        
+        private final AtomicInteger counter = new AtomicInteger();
+        
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.springbootwebapp.security;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+
+import java.io.IOException;
+
+//Answers saturated-hashing failures with 503 + Retry-After; every other failure goes back to the login page
+public class HashingAwareAuthenticationFailureHandler implements AuthenticationFailureHandler {
+    
+    private final AuthenticationFailureHandler delegate;
+    
+    public HashingAwareAuthenticationFailureHandler(String failureUrl) {
+        this.delegate = new SimpleUrlAuthenticationFailureHandler(failureUrl);
+    }
+    
+    @Override
+    public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response,
+                                        AuthenticationException exception) throws IOException, ServletException {
+        if (exception instanceof PasswordHashingUnavailableException unavailable) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(unavailable.getRetryAfterSeconds()));
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Too many sign-in attempts are being processed. Please retry shortly.");
+            return;
+        }
+        delegate.onAuthenticationFailure(request, response, exception);
+    }
+}
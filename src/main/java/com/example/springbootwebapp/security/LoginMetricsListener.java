@@ -0,0 +1,43 @@
+package com.example.springbootwebapp.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Component;
+
+//Counts authentication outcomes from the events the authentication manager publishes. Failures are
+//tagged with the exception type (bad credentials, hashing pool saturated, ...), a small fixed set.
+@Component
+public class LoginMetricsListener {
+    
+    private static final String METRIC = "app.login.attempts";
+    
+    private final MeterRegistry registry;
+    private final Counter successes;
+    
+    public LoginMetricsListener(MeterRegistry registry) {
+        this.registry = registry;
+        this.successes = Counter.builder(METRIC)
+                .description("Authentication attempts by outcome")
+                .tag("outcome", "success")
+                .tag("reason", "none")
+                .register(registry);
+    }
+    
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        successes.increment();
+    }
+    
+    @EventListener
+    public void onFailure(AbstractAuthenticationFailureEvent event) {
+        Counter.builder(METRIC)
+                .description("Authentication attempts by outcome")
+                .tag("outcome", "failure")
+                .tag("reason", event.getException().getClass().getSimpleName())
+                .register(registry)
+                .increment();
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.springbootwebapp.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+//Rate limits sign-in attempts per client IP and per username before any user lookup or BCrypt
+//work. Each key is a token bucket (capacity attempts at once, then one per refill interval) kept
+//as a single theoretical-arrival timestamp updated by compare-and-set, so concurrent attempts
+//never block each other. Buckets live in a size-bounded cache and are dropped once idle longer
+//than it takes them to refill completely.
+public class LoginThrottle implements MeterBinder {
+    
+    //Usernames are at most 50 characters; longer input must not grow the key space
+    private static final int MAX_USERNAME_KEY_LENGTH = 64;
+    
+    private final Limit perUser;
+    private final Limit perIp;
+    private final Ticker ticker;
+    private final Cache<String, Bucket> buckets;
+    private final LongAdder rejectedByIp = new LongAdder();
+    private final LongAdder rejectedByUser = new LongAdder();
+    
+    public LoginThrottle(Limit perUser, Limit perIp, long maximumKeys, Ticker ticker) {
+        this.perUser = perUser;
+        this.perIp = perIp;
+        this.ticker = ticker;
+        Duration idle = perUser.fullRefill().compareTo(perIp.fullRefill()) > 0 ? perUser.fullRefill() : perIp.fullRefill();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(idle)
+                .ticker(ticker)
+                .build();
+    }
+    
+    //Empty when the attempt may proceed, otherwise how long the client should wait. The IP bucket
+    //is checked first so a flood from one address does not also drain its victims' user buckets.
+    public Optional<Duration> tryAcquire(String username, String clientIp) {
+        long now = ticker.read();
+        long ipWait = acquire("ip:" + clientIp, perIp, now);
+        if (ipWait > 0) {
+            rejectedByIp.increment();
+            return Optional.of(Duration.ofNanos(ipWait));
+        }
+        long userWait = acquire("user:" + normalize(username), perUser, now);
+        if (userWait > 0) {
+            rejectedByUser.increment();
+            return Optional.of(Duration.ofNanos(userWait));
+        }
+        return Optional.empty();
+    }
+    
+    //A correct password ends the lockout for that account; the IP budget is left as it is
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        buckets.invalidate("user:" + normalize(event.getAuthentication().getName()));
+    }
+    
+    public long getTrackedKeys() {
+        return buckets.estimatedSize();
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("app.login.throttled", rejectedByIp, LongAdder::sum)
+                .description("Sign-in attempts rejected before authentication")
+                .tag("key", "ip")
+                .register(registry);
+        FunctionCounter.builder("app.login.throttled", rejectedByUser, LongAdder::sum)
+                .description("Sign-in attempts rejected before authentication")
+                .tag("key", "user")
+                .register(registry);
+        Gauge.builder("app.login.throttle.keys", this, LoginThrottle::getTrackedKeys)
+                .description("Usernames and addresses with a live sign-in budget")
+                .register(registry);
+    }
+    
+    private long acquire(String key, Limit limit, long now) {
+        return buckets.get(key, k -> new Bucket(now)).tryAcquire(now, limit.intervalNanos(), limit.burstNanos());
+    }
+    
+    private static String normalize(String username) {
+        String key = username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+        return key.length() > MAX_USERNAME_KEY_LENGTH ? key.substring(0, MAX_USERNAME_KEY_LENGTH) : key;
+    }
+    
+    public record Limit(int capacity, Duration refillInterval) {
+        
+        long intervalNanos() {
+            return refillInterval.toNanos();
+        }
+        
+        long burstNanos() {
+            return refillInterval.toNanos() * capacity;
+        }
+        
+        Duration fullRefill() {
+            return refillInterval.multipliedBy(capacity);
+        }
+    }
+    
+    private static final class Bucket {
+        
+        //When the bucket would next be full if no further attempts were made
+        private final AtomicLong theoreticalArrival;
+        
+        Bucket(long now) {
+            this.theoreticalArrival = new AtomicLong(now);
+        }
+        
+        //0 when admitted, otherwise nanoseconds until the next token
+        long tryAcquire(long now, long interval, long burst) {
+            while (true) {
+                long current = theoreticalArrival.get();
+                long next = Math.max(current, now) + interval;
+                long wait = next - now - burst;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (theoreticalArrival.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
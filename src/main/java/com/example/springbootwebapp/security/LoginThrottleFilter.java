@@ -0,0 +1,81 @@
+package com.example.springbootwebapp.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.www.BasicAuthenticationConverter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+//Sits in front of the form-login (or HTTP Basic) filter and answers over-limit sign-in attempts
+//with 429 + Retry-After, so they never reach the user lookup or BCrypt
+public class LoginThrottleFilter extends OncePerRequestFilter {
+    
+    private final LoginThrottle throttle;
+    private final RequestMatcher loginRequest;
+    private final Function<HttpServletRequest, String> username;
+    
+    public LoginThrottleFilter(LoginThrottle throttle, String loginProcessingUrl) {
+        this(throttle, new AntPathRequestMatcher(loginProcessingUrl, HttpMethod.POST.name()),
+                request -> request.getParameter("username"));
+    }
+    
+    private LoginThrottleFilter(LoginThrottle throttle, RequestMatcher loginRequest,
+                                Function<HttpServletRequest, String> username) {
+        this.throttle = throttle;
+        this.loginRequest = loginRequest;
+        this.username = username;
+    }
+    
+    //HTTP Basic carries the credentials on every request, so every request with them is an attempt.
+    //Successes reset the user bucket as for form login; a malformed header counts against the IP only.
+    public static LoginThrottleFilter forHttpBasic(LoginThrottle throttle) {
+        BasicAuthenticationConverter converter = new BasicAuthenticationConverter();
+        return new LoginThrottleFilter(throttle, LoginThrottleFilter::hasBasicCredentials, request -> {
+            try {
+                UsernamePasswordAuthenticationToken token = converter.convert(request);
+                return token == null ? null : token.getName();
+            } catch (AuthenticationException e) {
+                return null;
+            }
+        });
+    }
+    
+    private static boolean hasBasicCredentials(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return header != null && header.regionMatches(true, 0, "Basic ", 0, 6);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !loginRequest.matches(request);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Optional<Duration> wait = throttle.tryAcquire(username.apply(request), request.getRemoteAddr());
+        if (wait.isPresent()) {
+            long retryAfterSeconds = Math.max(1, (wait.get().toMillis() + 999) / 1000);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Too many sign-in attempts. Please wait a moment and try again.");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
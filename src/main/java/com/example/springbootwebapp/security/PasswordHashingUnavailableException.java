@@ -0,0 +1,19 @@
+package com.example.springbootwebapp.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+//Thrown when the password hashing pool is saturated; an AuthenticationException so that the
+//login failure handler sees it instead of it escaping the filter chain as a 500
+public class PasswordHashingUnavailableException extends AuthenticationServiceException {
+    
+    private final long retryAfterSeconds;
+    
+    public PasswordHashingUnavailableException(String message, long retryAfterSeconds, Throwable cause) {
+        super(message, cause);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.springbootwebapp.security;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.web.context.HttpRequestResponseHolder;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.util.WebUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+//Keeps the login in a signed cookie instead of the HttpSession: form login stores the
+//authentication as a token carrying username and authorities, and every later request is
+//authenticated from the cookie alone, without a session or a user lookup. Any node holding the
+//keys can serve any request. Role changes and logouts on other devices only take effect when
+//the token expires.
+public class SignedCookieSecurityContextRepository implements SecurityContextRepository {
+    
+    public static final String COOKIE_NAME = "AUTH_TOKEN";
+    
+    private final SignedTokenCodec codec;
+    private final Duration ttl;
+    private final SecurityContextHolderStrategy contextHolderStrategy = SecurityContextHolder.getContextHolderStrategy();
+    
+    public SignedCookieSecurityContextRepository(SignedTokenCodec codec, Duration ttl) {
+        this.codec = codec;
+        this.ttl = ttl;
+    }
+    
+    @Override
+    @Deprecated
+    public SecurityContext loadContext(HttpRequestResponseHolder requestResponseHolder) {
+        SecurityContext context = contextHolderStrategy.createEmptyContext();
+        readToken(requestResponseHolder.getRequest())
+                .ifPresent(claims -> context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                        claims.username(), null,
+                        AuthorityUtils.createAuthorityList(claims.authorities()))));
+        return context;
+    }
+    
+    //Called on login with the new authentication and on logout with an empty context
+    @Override
+    public void saveContext(SecurityContext context, HttpServletRequest request, HttpServletResponse response) {
+        Authentication authentication = context.getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            if (WebUtils.getCookie(request, COOKIE_NAME) != null) {
+                writeCookie(request, response, "", Duration.ZERO);
+            }
+            return;
+        }
+        String token = codec.issue(authentication.getName(),
+                AuthorityUtils.authorityListToSet(authentication.getAuthorities()), ttl);
+        writeCookie(request, response, token, ttl);
+    }
+    
+    @Override
+    public boolean containsContext(HttpServletRequest request) {
+        return readToken(request).isPresent();
+    }
+    
+    private Optional<SignedTokenCodec.Claims> readToken(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE_NAME);
+        return cookie == null ? Optional.empty() : codec.verify(cookie.getValue());
+    }
+    
+    private static void writeCookie(HttpServletRequest request, HttpServletResponse response, String value,
+                                    Duration maxAge) {
+        String path = request.getContextPath().isEmpty() ? "/" : request.getContextPath();
+        ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, value)
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Lax")
+                .path(path)
+                .maxAge(maxAge)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.springbootwebapp.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+//HMAC-SHA256 signed tokens of the form "<payload>.<signature>", where the payload is
+//"<key id>.<username>.<authorities>.<expiry epoch seconds>" with username and authorities base64url
+//encoded. Tokens are signed with the first key and accepted with any configured key, which is how
+//keys are rotated: add the new key second everywhere, then move it first, then drop the old key
+//once tokens signed with it have expired.
+public class SignedTokenCodec {
+    
+    private static final Logger log = LoggerFactory.getLogger(SignedTokenCodec.class);
+    
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_KEY_BYTES = 32;
+    private static final Pattern KEY_ID = Pattern.compile("[A-Za-z0-9_-]+");
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    
+    private final String signingKeyId;
+    private final Map<String, SecretKeySpec> keys;
+    private final Clock clock;
+    
+    public SignedTokenCodec(Map<String, byte[]> keys, Clock clock) {
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("At least one signing key is required");
+        }
+        Map<String, SecretKeySpec> specs = new LinkedHashMap<>();
+        keys.forEach((id, secret) -> {
+            if (!KEY_ID.matcher(id).matches()) {
+                throw new IllegalArgumentException("Key id must be alphanumeric: " + id);
+            }
+            if (secret.length < MIN_KEY_BYTES) {
+                throw new IllegalArgumentException("Key " + id + " must be at least " + MIN_KEY_BYTES + " bytes");
+            }
+            specs.put(id, new SecretKeySpec(secret, ALGORITHM));
+        });
+        this.signingKeyId = specs.keySet().iterator().next();
+        this.keys = Map.copyOf(specs);
+        this.clock = clock;
+    }
+    
+    //"id:base64secret,id:base64secret", signing key first. Blank means a random per-process key,
+    //which only works on a single node and logs everyone out on restart.
+    public static SignedTokenCodec fromProperty(String property, Clock clock) {
+        Map<String, byte[]> keys = new LinkedHashMap<>();
+        if (property == null || property.isBlank()) {
+            log.warn("No app.security.stateless.keys configured; signing with a random key that other nodes cannot verify");
+            byte[] secret = new byte[MIN_KEY_BYTES];
+            new SecureRandom().nextBytes(secret);
+            keys.put("local", secret);
+        } else {
+            for (String entry : property.split(",")) {
+                String[] parts = entry.trim().split(":", 2);
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Expected id:base64secret but got: " + parts[0]);
+                }
+                keys.put(parts[0], Base64.getDecoder().decode(parts[1]));
+            }
+        }
+        return new SignedTokenCodec(keys, clock);
+    }
+    
+    public String issue(String username, Collection<String> authorities, Duration ttl) {
+        long expiry = clock.instant().plus(ttl).getEpochSecond();
+        String payload = signingKeyId
+                + "." + encode(username)
+                + "." + encode(String.join(",", authorities))
+                + "." + expiry;
+        return payload + "." + ENCODER.encodeToString(sign(keys.get(signingKeyId), payload));
+    }
+    
+    //Empty for anything malformed, signed with an unknown key, tampered with or expired
+    public Optional<Claims> verify(String token) {
+        String[] parts = token.split("\\.", -1);
+        if (parts.length != 5) {
+            return Optional.empty();
+        }
+        SecretKeySpec key = keys.get(parts[0]);
+        if (key == null) {
+            return Optional.empty();
+        }
+        try {
+            String payload = token.substring(0, token.lastIndexOf('.'));
+            if (!MessageDigest.isEqual(sign(key, payload), DECODER.decode(parts[4]))) {
+                return Optional.empty();
+            }
+            Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(parts[3]));
+            if (!clock.instant().isBefore(expiresAt)) {
+                return Optional.empty();
+            }
+            String authorities = decode(parts[2]);
+            List<String> authorityList = authorities.isEmpty() ? List.of() : Arrays.asList(authorities.split(","));
+            return Optional.of(new Claims(decode(parts[1]), authorityList, expiresAt));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+    
+    private static byte[] sign(SecretKeySpec key, String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+    
+    private static String encode(String value) {
+        return ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String decode(String value) {
+        return new String(DECODER.decode(value), StandardCharsets.UTF_8);
+    }
+    
+    public record Claims(String username, List<String> authorities, Instant expiresAt) {
+    }
+}
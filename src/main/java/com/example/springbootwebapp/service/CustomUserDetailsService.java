@@ -1,39 +1,102 @@
 package com.example.springbootwebapp.service;
 
+import com.example.springbootwebapp.config.ReplicaStickiness;
+import com.example.springbootwebapp.event.UserUpdatedEvent;
 import com.example.springbootwebapp.model.User;
 import com.example.springbootwebapp.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Optional;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     
     private final UserRepository userRepository;
+    private final ReplicaStickiness stickiness;
+    private final LoadingCache<String, CachedUser> userCache;
     
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, ObjectProvider<ReplicaStickiness> stickiness,
+                                    @Value("${app.security.user-cache.maximum-size:10000}") long maximumSize,
+                                    @Value("${app.security.user-cache.ttl:PT5M}") Duration ttl) {
         this.userRepository = userRepository;
+        this.stickiness = stickiness.getIfAvailable();
+        this.userCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(this::loadFromDatabase);
     }
     
     @Override
+    @Timed(value = "app.users.load-user-details", histogram = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
-        
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                getAuthorities(user)
-        );
+        //Caffeine runs at most one load per key at a time, so concurrent misses share a single query.
+        //Unknown users are not cached; the loader's exception propagates to the caller unchanged.
+        return userCache.get(username).toUserDetails();
+    }
+    
+    //Called by the authentication provider after a successful login whose stored hash needs upgrading.
+    //Written through the managed entity: only this user's second-level cache entry is refreshed,
+    //where a bulk UPDATE query would make Hibernate drop the whole User region.
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.findByNaturalUsername(user.getUsername())
+                .ifPresent(entity -> entity.setPassword(newPassword));
+        evict(user.getUsername());
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
+    
+    public void evict(String username) {
+        userCache.invalidate(username);
+    }
+    
+    public CacheStats getCacheStats() {
+        return userCache.stats();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserUpdated(UserUpdatedEvent event) {
+        evict(event.getUsername());
+    }
+    
+    //With a read replica, an account registered moments ago is looked up on the primary
+    private CachedUser loadFromDatabase(String username) {
+        Optional<User> found = stickiness == null ? userRepository.findByNaturalUsername(username)
+                : stickiness.readFor(username, () -> userRepository.findByNaturalUsername(username));
+        User user = found.orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        return new CachedUser(user.getUsername(), user.getPassword(), getAuthorities(user));
     }
     
     private Collection<? extends GrantedAuthority> getAuthorities(User user) {
         return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
     }
+    
+    //Immutable snapshot; a fresh UserDetails is built per call because the authentication manager
+    //erases credentials on the instance it is handed after a successful login
+    private record CachedUser(String username, String password, Collection<? extends GrantedAuthority> authorities) {
+        
+        UserDetails toUserDetails() {
+            return new org.springframework.security.core.userdetails.User(username, password, authorities);
+        }
+    }
 }
@@ -0,0 +1,10 @@
+package com.example.springbootwebapp.service;
+
+//A username or email that another account already has; the message is one of the fixed
+//UniqueViolations texts, so it can be shown to the client as it is
+public class DuplicateUserException extends RuntimeException {
+    
+    public DuplicateUserException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.springbootwebapp.service;
+
+import com.example.springbootwebapp.dto.EntityCacheStats;
+import com.example.springbootwebapp.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+//Reads Hibernate's second-level cache statistics (hibernate.generate_statistics) for the dashboard
+@Service
+public class EntityCacheStatsService {
+    
+    private final Statistics statistics;
+    
+    public EntityCacheStatsService(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+    
+    public EntityCacheStats getUserCacheStats() {
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(User.CACHE_REGION);
+        return new EntityCacheStats(region.getHitCount(), region.getMissCount(), region.getPutCount(),
+                statistics.getNaturalIdCacheHitCount(), statistics.getNaturalIdCacheMissCount());
+    }
+}
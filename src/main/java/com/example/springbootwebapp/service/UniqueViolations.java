@@ -0,0 +1,45 @@
+package com.example.springbootwebapp.service;
+
+import com.example.springbootwebapp.model.User;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+//Maps unique-constraint violations on the users table back to the user-facing duplicate messages
+final class UniqueViolations {
+    
+    static final String DUPLICATE_USERNAME = "Username already exists";
+    static final String DUPLICATE_EMAIL = "Email already exists";
+    
+    private UniqueViolations() {
+    }
+    
+    //Returns null when the violation is not on username or email
+    static String duplicateFieldMessage(DataIntegrityViolationException e) {
+        String violation = describeViolation(e);
+        if (violation.contains(User.USERNAME_CONSTRAINT) || violation.contains("users(username")
+                || violation.contains("key (username)")) {
+            return DUPLICATE_USERNAME;
+        }
+        if (violation.contains(User.EMAIL_CONSTRAINT) || violation.contains("users(email")
+                || violation.contains("key (email)")) {
+            return DUPLICATE_EMAIL;
+        }
+        return null;
+    }
+    
+    //Prefers the constraint name Hibernate extracted; falls back to the driver's message, which names
+    //the index (H2) or the key columns (PostgreSQL) when the name could not be extracted
+    private static String describeViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                String name = violation.getConstraintName().toLowerCase(Locale.ROOT);
+                if (name.contains(User.USERNAME_CONSTRAINT) || name.contains(User.EMAIL_CONSTRAINT)) {
+                    return name;
+                }
+            }
+        }
+        return String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+    }
+}
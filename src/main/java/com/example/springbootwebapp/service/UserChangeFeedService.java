@@ -0,0 +1,39 @@
+package com.example.springbootwebapp.service;
+
+import com.example.springbootwebapp.dto.UserChangeFeedPage;
+import com.example.springbootwebapp.dto.UserChangeResponse;
+import com.example.springbootwebapp.repository.UserChangeRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+//Incremental sync for downstream systems: everything published after a feed position, oldest
+//first. Starting from 0 replays every user (existing ones were seeded as registrations).
+@Service
+public class UserChangeFeedService {
+    
+    public static final int DEFAULT_LIMIT = 500;
+    public static final int MAX_LIMIT = 1000;
+    
+    private final UserChangeRepository changeRepository;
+    
+    public UserChangeFeedService(UserChangeRepository changeRepository) {
+        this.changeRepository = changeRepository;
+    }
+    
+    @Transactional(readOnly = true)
+    public UserChangeFeedPage getChanges(long since, int limit) {
+        long from = Math.max(since, 0);
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        //One extra row tells whether the caller should poll again straight away
+        List<UserChangeResponse> changes = changeRepository.findFeed(from, Limit.of(pageSize + 1));
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+        }
+        long next = changes.isEmpty() ? from : changes.get(changes.size() - 1).getPosition();
+        return new UserChangeFeedPage(changes, next, hasMore);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.springbootwebapp.service;
+
+import com.example.springbootwebapp.model.UserChange;
+import com.example.springbootwebapp.model.UserChangeFeed;
+import com.example.springbootwebapp.repository.UserChangeFeedRepository;
+import com.example.springbootwebapp.repository.UserChangeRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+//Moves committed outbox rows into the change feed in batches. Numbering happens under the feed
+//row lock, so each batch's positions follow the previous batch's and become visible at once; a
+//row whose transaction committed late simply gets a later position instead of leaving a gap
+//behind a reader's ?since= cursor.
+@Service
+public class UserChangePublisher {
+    
+    private static final Logger log = LoggerFactory.getLogger(UserChangePublisher.class);
+    
+    private final UserChangeRepository changeRepository;
+    private final UserChangeFeedRepository feedRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    
+    public UserChangePublisher(UserChangeRepository changeRepository,
+                               UserChangeFeedRepository feedRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.outbox.batch-size:500}") int batchSize) {
+        this.changeRepository = changeRepository;
+        this.feedRepository = feedRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+    
+    //Drains the backlog one batch per transaction so the feed lock is never held for long
+    @Timed(value = "app.outbox.publish", histogram = true)
+    @Scheduled(fixedDelayString = "${app.outbox.publish-interval:PT1S}")
+    public void publishPending() {
+        int published;
+        do {
+            published = publishBatch();
+        } while (published == batchSize);
+    }
+    
+    public int publishBatch() {
+        Integer published = transactionTemplate.execute(status -> {
+            UserChangeFeed feed = feedRepository.lock();
+            List<UserChange> batch = changeRepository.findUnpublished(Limit.of(batchSize));
+            long position = feed.getLastPosition();
+            for (UserChange change : batch) {
+                change.setFeedPosition(++position);
+            }
+            feed.setLastPosition(position);
+            return batch.size();
+        });
+        if (published != null && published > 0) {
+            log.debug("Published {} user changes to the feed", published);
+        }
+        return published == null ? 0 : published;
+    }
+}
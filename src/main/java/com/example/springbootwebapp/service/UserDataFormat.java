@@ -0,0 +1,39 @@
+package com.example.springbootwebapp.service;
+
+import java.util.Locale;
+
+public enum UserDataFormat {
+    CSV("text/csv;charset=UTF-8", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+    
+    private final String contentType;
+    private final String extension;
+    
+    UserDataFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public String getExtension() {
+        return extension;
+    }
+    
+    public static UserDataFormat fromParameter(String format) {
+        return "ndjson".equalsIgnoreCase(format) || "jsonl".equalsIgnoreCase(format) ? NDJSON : CSV;
+    }
+    
+    //NDJSON when the content type or file extension says so, CSV otherwise
+    public static UserDataFormat detect(String contentType, String filename) {
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        if (type.contains("ndjson") || type.contains("jsonl") || type.contains("json")
+                || name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        return CSV;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.springbootwebapp.service;
+
+import com.example.springbootwebapp.dto.UserResponse;
+import com.example.springbootwebapp.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+//Writes the user directory straight from a database cursor to the output; memory use does not
+//depend on the number of users. Passwords are never exported.
+@Service
+public class UserExportService {
+    
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    
+    public UserExportService(UserRepository userRepository, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+    }
+    
+    //The cursor, and so the connection, stay open until the client has received the last row
+    @Transactional(readOnly = true)
+    public long exportUsers(UserDataFormat format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        long count;
+        try (Stream<UserResponse> users = userRepository.streamAllResponses()) {
+            count = format == UserDataFormat.NDJSON ? writeNdjson(users.iterator(), writer) : writeCsv(users.iterator(), writer);
+        }
+        writer.flush();
+        return count;
+    }
+    
+    private long writeCsv(Iterator<UserResponse> users, Writer writer) throws IOException {
+        writer.write("id,username,email,fullName,role\n");
+        long count = 0;
+        while (users.hasNext()) {
+            UserResponse user = users.next();
+            writer.write(String.valueOf(user.getId()));
+            writer.write(',');
+            writer.write(csvField(user.getUsername()));
+            writer.write(',');
+            writer.write(csvField(user.getEmail()));
+            writer.write(',');
+            writer.write(csvField(user.getFullName()));
+            writer.write(',');
+            writer.write(user.getRole().name());
+            writer.write('\n');
+            count++;
+        }
+        return count;
+    }
+    
+    private long writeNdjson(Iterator<UserResponse> users, Writer writer) throws IOException {
+        long count = 0;
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+        while (users.hasNext()) {
+            UserResponse user = users.next();
+            generator.writeStartObject();
+            generator.writeNumberField("id", user.getId());
+            generator.writeStringField("username", user.getUsername());
+            generator.writeStringField("email", user.getEmail());
+            generator.writeStringField("fullName", user.getFullName());
+            generator.writeStringField("role", user.getRole().name());
+            generator.writeEndObject();
+            count++;
+        }
+        generator.flush();
+        if (count > 0) {
+            writer.write('\n');
+        }
+        return count;
+    }
+    
+    //Spreadsheets run a cell starting with = + - @ (or a tab or carriage return) as a formula, and
+    //full names are user-chosen: such cells get a leading apostrophe so they open as plain text
+    private String csvField(String value) {
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.springbootwebapp.service;
+
+import com.example.springbootwebapp.dto.UserResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+//The user properties an API client can select with ?fields=, each with its JSON writer
+public enum UserField {
+    ID("id") {
+        @Override
+        void write(JsonGenerator generator, UserResponse user) throws IOException {
+            generator.writeNumberField(getName(), user.getId());
+        }
+    },
+    USERNAME("username") {
+        @Override
+        void write(JsonGenerator generator, UserResponse user) throws IOException {
+            generator.writeStringField(getName(), user.getUsername());
+        }
+    },
+    EMAIL("email") {
+        @Override
+        void write(JsonGenerator generator, UserResponse user) throws IOException {
+            generator.writeStringField(getName(), user.getEmail());
+        }
+    },
+    FULL_NAME("fullName") {
+        @Override
+        void write(JsonGenerator generator, UserResponse user) throws IOException {
+            generator.writeStringField(getName(), user.getFullName());
+        }
+    },
+    ROLE("role") {
+        @Override
+        void write(JsonGenerator generator, UserResponse user) throws IOException {
+            generator.writeStringField(getName(), user.getRole().name());
+        }
+    },
+    VERSION("version") {
+        @Override
+        void write(JsonGenerator generator, UserResponse user) throws IOException {
+            if (user.getVersion() == null) {
+                generator.writeNullField(getName());
+            } else {
+                generator.writeNumberField(getName(), user.getVersion());
+            }
+        }
+    };
+    
+    private final String name;
+    
+    UserField(String name) {
+        this.name = name;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    abstract void write(JsonGenerator generator, UserResponse user) throws IOException;
+    
+    //"id,username" -> those fields in declaration order; empty or missing means every field
+    public static Set<UserField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return EnumSet.allOf(UserField.class);
+        }
+        Set<UserField> selected = EnumSet.noneOf(UserField.class);
+        for (String requested : fields.split(",")) {
+            String trimmed = requested.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            selected.add(fromName(trimmed));
+        }
+        return selected.isEmpty() ? EnumSet.allOf(UserField.class) : selected;
+    }
+    
+    private static UserField fromName(String name) {
+        for (UserField field : values()) {
+            if (field.name.equalsIgnoreCase(name) || field.name().equalsIgnoreCase(name.replace('-', '_'))) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: " + name.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.springbootwebapp.service;
+
+import com.example.springbootwebapp.dto.ImportResult;
+import com.example.springbootwebapp.dto.RegisterRequest;
+import com.example.springbootwebapp.event.UserRegisteredEvent;
+import com.example.springbootwebapp.model.Role;
+import com.example.springbootwebapp.security.PasswordHashingUnavailableException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+//Bulk onboarding: reads the upload line by line, validates with the RegisterRequest rules, hashes a
+//chunk's passwords in parallel and writes each chunk as one JDBC batch in its own transaction
+@Service
+public class UserImportService {
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO users (username, email, password, full_name, role) VALUES (?, ?, ?, ?, ?)";
+    //Outbox row for the change feed, copied from the user just inserted in the same transaction
+    private static final String OUTBOX_SQL =
+            "INSERT INTO user_changes (change_type, user_id, username, email, full_name, role, changed_at)"
+            + " SELECT 'REGISTERED', id, username, email, full_name, role, CURRENT_TIMESTAMP FROM users WHERE username = ?";
+    private static final int MAX_HASH_ATTEMPTS = 3;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectReader requestReader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Executor taskExecutor;
+    private final int hashingParallelism;
+    private final int chunkSize;
+    
+    public UserImportService(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             PasswordEncoder passwordEncoder,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             ApplicationEventPublisher eventPublisher,
+                             @Qualifier("applicationTaskExecutor") Executor taskExecutor,
+                             @Value("${app.import.chunk-size:500}") int chunkSize,
+                             @Value("${app.import.hashing-parallelism:0}") int hashingParallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.requestReader = objectMapper.readerFor(RegisterRequest.class);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        //Workers come from Spring's task executor, so they are virtual threads when
+        //spring.threads.virtual.enabled is set. The hashes themselves still run on the shared,
+        //capped hashing pool; the workers only keep enough of an import's work in flight to use
+        //every core it is allowed.
+        this.taskExecutor = taskExecutor;
+        this.hashingParallelism = hashingParallelism > 0 ? hashingParallelism : Runtime.getRuntime().availableProcessors();
+    }
+    
+    public ImportResult importUsers(InputStream input, UserDataFormat format) throws IOException {
+        ImportResult result = new ImportResult();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        
+        Map<String, Integer> csvColumns = null;
+        long lineNumber = 0;
+        if (format == UserDataFormat.CSV) {
+            String header = reader.readLine();
+            lineNumber++;
+            if (header == null) {
+                return result;
+            }
+            csvColumns = parseHeader(header);
+        }
+        
+        List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                RegisterRequest request = format == UserDataFormat.CSV
+                        ? parseCsvRow(line, csvColumns)
+                        : requestReader.readValue(line);
+                if (request == null) {
+                    throw new IllegalArgumentException("empty record");
+                }
+                chunk.add(new ParsedRow(lineNumber, request));
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                result.addError(lineNumber, null, "Malformed row: " + e.getMessage());
+            }
+            if (chunk.size() == chunkSize) {
+                processChunk(chunk, result);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, result);
+        }
+        return result;
+    }
+    
+    private void processChunk(List<ParsedRow> chunk, ImportResult result) {
+        List<ParsedRow> valid = new ArrayList<>(chunk.size());
+        for (ParsedRow row : chunk) {
+            Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(row.request());
+            if (violations.isEmpty()) {
+                valid.add(row);
+            } else {
+                result.addError(row.lineNumber(), row.request().getUsername(), violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+        }
+        
+        //A fixed number of workers pull rows off a shared index, so however many threads the
+        //executor would hand out, at most hashingParallelism hashes of this import are in flight
+        String[] hashes = new String[valid.size()];
+        AtomicInteger nextRow = new AtomicInteger();
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.min(hashingParallelism, valid.size())];
+        for (int w = 0; w < workers.length; w++) {
+            workers[w] = CompletableFuture.runAsync(() -> {
+                int i;
+                while ((i = nextRow.getAndIncrement()) < hashes.length) {
+                    try {
+                        hashes[i] = hash(valid.get(i).request().getPassword());
+                    } catch (RuntimeException e) {
+                        //Left null and reported below
+                    }
+                }
+            }, taskExecutor);
+        }
+        CompletableFuture.allOf(workers).join();
+        
+        List<HashedRow> hashed = new ArrayList<>(valid.size());
+        for (int i = 0; i < valid.size(); i++) {
+            ParsedRow row = valid.get(i);
+            if (hashes[i] != null) {
+                hashed.add(new HashedRow(row, hashes[i]));
+            } else {
+                result.addError(row.lineNumber(), row.request().getUsername(), "Password hashing failed");
+            }
+        }
+        
+        if (!hashed.isEmpty()) {
+            insertChunk(hashed, result);
+        }
+    }
+    
+    private void insertChunk(List<HashedRow> rows, ImportResult result) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (statement, row) -> {
+                    RegisterRequest request = row.parsed().request();
+                    statement.setString(1, request.getUsername());
+                    statement.setString(2, request.getEmail());
+                    statement.setString(3, row.passwordHash());
+                    statement.setString(4, request.getFullName());
+                    statement.setString(5, Role.USER.name());
+                });
+                jdbcTemplate.batchUpdate(OUTBOX_SQL, rows, rows.size(),
+                        (statement, row) -> statement.setString(1, row.parsed().request().getUsername()));
+                rows.forEach(this::publishRegistered);
+            });
+            result.addImported(rows.size());
+        } catch (DataAccessException e) {
+            //Some row in the batch conflicts; replay the chunk one row per transaction to pinpoint it
+            for (HashedRow row : rows) {
+                insertSingle(row, result);
+            }
+        }
+    }
+    
+    private void insertSingle(HashedRow row, ImportResult result) {
+        RegisterRequest request = row.parsed().request();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(INSERT_SQL, request.getUsername(), request.getEmail(),
+                        row.passwordHash(), request.getFullName(), Role.USER.name());
+                jdbcTemplate.update(OUTBOX_SQL, request.getUsername());
+                publishRegistered(row);
+            });
+            result.addImported(1);
+        } catch (DataIntegrityViolationException e) {
+            String duplicate = UniqueViolations.duplicateFieldMessage(e);
+            result.addError(row.parsed().lineNumber(), request.getUsername(),
+                    duplicate != null ? duplicate : "Rejected by the database");
+        } catch (DataAccessException e) {
+            result.addError(row.parsed().lineNumber(), request.getUsername(), "Rejected by the database");
+        }
+    }
+    
+    private void publishRegistered(HashedRow row) {
+        eventPublisher.publishEvent(new UserRegisteredEvent(row.parsed().request().getUsername(), Role.USER));
+    }
+    
+    //The shared hashing pool turns callers away when saturated by logins; an import can afford to wait
+    private String hash(String password) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return passwordEncoder.encode(password);
+            } catch (PasswordHashingUnavailableException e) {
+                if (attempt == MAX_HASH_ATTEMPTS) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(e.getRetryAfterSeconds() * 1000);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+    
+    private Map<String, Integer> parseHeader(String header) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = CsvLineParser.parse(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("username", "email", "password", "fullname")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing the '" + required + "' column");
+            }
+        }
+        return columns;
+    }
+    
+    private RegisterRequest parseCsvRow(String line, Map<String, Integer> columns) {
+        List<String> values = CsvLineParser.parse(line);
+        return new RegisterRequest(
+                column(values, columns.get("username")),
+                column(values, columns.get("email")),
+                column(values, columns.get("password")),
+                column(values, columns.get("fullname")));
+    }
+    
+    private String column(List<String> values, int index) {
+        return index < values.size() ? values.get(index) : null;
+    }
+    
+    private record ParsedRow(long lineNumber, RegisterRequest request) {
+    }
+    
+    private record HashedRow(ParsedRow parsed, String passwordHash) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.springbootwebapp.service;
+
+import com.example.springbootwebapp.dto.UserPage;
+import com.example.springbootwebapp.dto.UserResponse;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Set;
+
+//JSON for the /api endpoints, written token by token straight to the response: no intermediate
+//maps or trees are built, and properties the client did not select are never serialized
+@Component
+public class UserJsonWriter {
+    
+    private final ObjectMapper objectMapper;
+    
+    public UserJsonWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+    
+    public void writeUser(UserResponse user, Set<UserField> fields, OutputStream output) throws IOException {
+        try (JsonGenerator generator = createGenerator(output)) {
+            writeFields(generator, user, fields);
+        }
+    }
+    
+    //{"users":[...],"sort":..,"direction":..,"size":..,"next":cursor|null,"previous":cursor|null}
+    public void writePage(UserPage page, Set<UserField> fields, OutputStream output) throws IOException {
+        try (JsonGenerator generator = createGenerator(output)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("users");
+            for (UserResponse user : page.getUsers()) {
+                writeFields(generator, user, fields);
+            }
+            generator.writeEndArray();
+            generator.writeStringField("sort", page.getSort());
+            generator.writeStringField("direction", page.getDirection());
+            generator.writeNumberField("size", page.getSize());
+            generator.writeStringField("next", page.getNextCursor());
+            generator.writeStringField("previous", page.getPreviousCursor());
+            generator.writeEndObject();
+        }
+    }
+    
+    private void writeFields(JsonGenerator generator, UserResponse user, Set<UserField> fields) throws IOException {
+        generator.writeStartObject();
+        for (UserField field : fields) {
+            field.write(generator, user);
+        }
+        generator.writeEndObject();
+    }
+    
+    //Closing the generator flushes it but leaves the servlet stream to the container
+    private JsonGenerator createGenerator(OutputStream output) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.springbootwebapp.service;
+
+public class UserNotFoundException extends RuntimeException {
+    
+    public UserNotFoundException() {
+        super("User not found");
+    }
+}
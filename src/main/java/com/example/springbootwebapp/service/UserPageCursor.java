@@ -0,0 +1,46 @@
+package com.example.springbootwebapp.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+//Opaque position of a row in a keyset-paginated listing: the row id plus its sort column value
+final class UserPageCursor {
+    
+    private final Long id;
+    private final String value;
+    
+    UserPageCursor(Long id, String value) {
+        this.id = id;
+        this.value = value;
+    }
+    
+    Long getId() {
+        return id;
+    }
+    
+    String getValue() {
+        return value;
+    }
+    
+    String encode() {
+        String raw = value == null ? id.toString() : id + ":" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    //Returns null for missing or malformed cursors so callers fall back to the first page
+    static UserPageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator < 0) {
+                return new UserPageCursor(Long.valueOf(raw), null);
+            }
+            return new UserPageCursor(Long.valueOf(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
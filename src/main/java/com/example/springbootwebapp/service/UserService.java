@@ -2,38 +2,65 @@ package com.example.springbootwebapp.service;
 
 import com.example.springbootwebapp.dto.ProfileUpdateRequest;
 import com.example.springbootwebapp.dto.RegisterRequest;
+import com.example.springbootwebapp.dto.UserPage;
 import com.example.springbootwebapp.dto.UserResponse;
+import com.example.springbootwebapp.dto.UserSearchResult;
+import com.example.springbootwebapp.event.UserRegisteredEvent;
+import com.example.springbootwebapp.event.UserUpdatedEvent;
+import com.example.springbootwebapp.model.ChangeType;
 import com.example.springbootwebapp.model.Role;
 import com.example.springbootwebapp.model.User;
+import com.example.springbootwebapp.model.UserChange;
+import com.example.springbootwebapp.repository.UserChangeRepository;
 import com.example.springbootwebapp.repository.UserRepository;
+import com.example.springbootwebapp.repository.UserSortField;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Objects;
 
 @Service
 public class UserService {
     
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    
+    //Shorter search terms only match prefixes: a one- or two-letter substring hits most of the
+    //table and has no trigram to narrow it with
+    static final int MIN_SUBSTRING_LENGTH = 3;
+    
+    static final String STALE_PROFILE_MESSAGE =
+            "Your profile was changed in the meantime. Review the current information and submit again.";
+    
     private final UserRepository userRepository;
+    private final UserChangeRepository changeRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
     
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, UserChangeRepository changeRepository,
+                       PasswordEncoder passwordEncoder, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.changeRepository = changeRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
     
+    @Timed(value = "app.users.register", histogram = true)
     @Transactional
     public UserResponse registerUser(RegisterRequest request) {
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new RuntimeException("Username already exists");
-        }
-        
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Email already exists");
-        }
-        
         User user = new User();
         user.setUsername(request.getUsername());
         user.setEmail(request.getEmail());
@@ -41,38 +68,128 @@ public class UserService {
         user.setFullName(request.getFullName());
         user.setRole(Role.USER);
         
-        User savedUser = userRepository.save(user);
+        //Uniqueness is left to the database constraints: one INSERT, and no window between check and write
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateFieldException(e);
+        }
+        //Outbox row in the same transaction: the change feed sees the user if and only if it committed
+        changeRepository.save(new UserChange(ChangeType.REGISTERED, savedUser, Instant.now()));
+        eventPublisher.publishEvent(new UserRegisteredEvent(savedUser.getUsername(), savedUser.getRole()));
         return mapToResponse(savedUser);
     }
     
+    //Served from the second-level cache once warm; the read-only session keeps no dirty-check snapshot
+    @Transactional(readOnly = true)
     public UserResponse getUserByUsername(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = userRepository.findByNaturalUsername(username)
+                .orElseThrow(UserNotFoundException::new);
         return mapToResponse(user);
     }
     
+    @Timed(value = "app.users.update-profile", histogram = true)
     @Transactional
     public UserResponse updateProfile(String username, ProfileUpdateRequest request) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = userRepository.findByNaturalUsername(username)
+                .orElseThrow(UserNotFoundException::new);
+        Long loadedVersion = user.getVersion();
         
-        //Check if email is being changed and if it's already taken by another user
-        if (!user.getEmail().equals(request.getEmail()) && 
-            userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Email already exists");
+        //A form rendered from an older version would overwrite changes its author never saw
+        if (request.getVersion() != null && !request.getVersion().equals(user.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(STALE_PROFILE_MESSAGE, null);
         }
         
         user.setFullName(request.getFullName());
         user.setEmail(request.getEmail());
         
-        User updatedUser = userRepository.save(user);
+        //An email already taken by another user surfaces as a unique violation on flush, and a
+        //concurrent update that committed first as a version mismatch. The read-write cache region
+        //soft-locks the entry and refreshes it after commit.
+        User updatedUser;
+        try {
+            updatedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateFieldException(e);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ObjectOptimisticLockingFailureException(STALE_PROFILE_MESSAGE, e);
+        }
+        //A resubmitted form with nothing changed issues no UPDATE, keeps its version and is not a change
+        if (!Objects.equals(loadedVersion, updatedUser.getVersion())) {
+            changeRepository.save(new UserChange(ChangeType.UPDATED, updatedUser, Instant.now()));
+        }
+        eventPublisher.publishEvent(new UserUpdatedEvent(updatedUser.getUsername()));
         return mapToResponse(updatedUser);
     }
     
+    @Timed(value = "app.users.get-all", histogram = true)
+    @Transactional(readOnly = true)
     public List<UserResponse> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return userRepository.findAllResponses();
+    }
+    
+    @Transactional(readOnly = true)
+    public List<UserResponse> getRecentUsers(int count) {
+        return userRepository.findRecentResponses(Limit.of(count));
+    }
+    
+    @Transactional(readOnly = true)
+    public UserPage getUsersPage(String sort, String direction, int size, String after, String before) {
+        UserSortField sortField = UserSortField.fromProperty(sort);
+        boolean ascending = !"desc".equalsIgnoreCase(direction);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        
+        UserPageCursor cursor = UserPageCursor.decode(after != null ? after : before);
+        boolean backward = after == null && cursor != null;
+        
+        //Fetch one extra row to learn whether another page exists in the walking direction
+        List<UserResponse> users = new ArrayList<>(userRepository.findKeysetPage(sortField, ascending,
+                cursor == null ? null : cursor.getValue(),
+                cursor == null ? null : cursor.getId(),
+                backward, pageSize + 1));
+        boolean hasMore = users.size() > pageSize;
+        if (hasMore) {
+            users.remove(pageSize);
+        }
+        if (backward) {
+            Collections.reverse(users);
+        }
+        
+        boolean hasNext = backward ? !users.isEmpty() : hasMore;
+        boolean hasPrevious = backward ? hasMore : cursor != null && !users.isEmpty();
+        String nextCursor = hasNext ? cursorFor(sortField, users.get(users.size() - 1)) : null;
+        String previousCursor = hasPrevious ? cursorFor(sortField, users.get(0)) : null;
+        
+        return new UserPage(users, sortField.getProperty(), ascending ? "asc" : "desc", pageSize,
+                nextCursor, previousCursor);
+    }
+    
+    @Transactional(readOnly = true)
+    public UserSearchResult searchUsers(String query, int page, int size) {
+        String trimmed = query.trim();
+        String term = trimmed.toLowerCase(Locale.ROOT);
+        int pageNumber = Math.max(0, page);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        
+        String escaped = escapeLike(term);
+        String prefix = escaped + "%";
+        String contains = term.length() < MIN_SUBSTRING_LENGTH ? prefix : "%" + escaped + "%";
+        Slice<UserResponse> slice = userRepository.search(term, prefix, contains, PageRequest.of(pageNumber, pageSize));
+        return new UserSearchResult(trimmed, slice.getContent(), pageNumber, pageSize, slice.hasNext());
+    }
+    
+    private String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
+    private RuntimeException duplicateFieldException(DataIntegrityViolationException e) {
+        String message = UniqueViolations.duplicateFieldMessage(e);
+        return message != null ? new DuplicateUserException(message, e) : e;
+    }
+    
+    private String cursorFor(UserSortField sortField, UserResponse user) {
+        return new UserPageCursor(user.getId(), sortField.valueOf(user)).encode();
     }
     
     private UserResponse mapToResponse(User user) {
@@ -81,7 +198,8 @@ public class UserService {
                 user.getUsername(),
                 user.getEmail(),
                 user.getFullName(),
-                user.getRole()
+                user.getRole(),
+                user.getVersion()
         );
     }
 }
@@ -0,0 +1,74 @@
+package com.example.springbootwebapp.service;
+
+import com.example.springbootwebapp.event.UserRegisteredEvent;
+import com.example.springbootwebapp.model.Role;
+import com.example.springbootwebapp.repository.RoleCount;
+import com.example.springbootwebapp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class UserStatsService {
+    
+    private static final Logger log = LoggerFactory.getLogger(UserStatsService.class);
+    
+    private final UserRepository userRepository;
+    
+    //One counter per role, populated up front so the map itself is never modified afterwards
+    private final Map<Role, AtomicLong> roleCounts = new EnumMap<>(Role.class);
+    
+    public UserStatsService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+        for (Role role : Role.values()) {
+            roleCounts.put(role, new AtomicLong());
+        }
+    }
+    
+    @TransactionalEventListener
+    public void onUserRegistered(UserRegisteredEvent event) {
+        roleCounts.get(event.getRole()).incrementAndGet();
+    }
+    
+    //Registrations committed while the aggregate query runs may be counted twice or missed;
+    //the next pass corrects that, so the counters only ever drift for one interval
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval:PT5M}",
+               initialDelayString = "${app.stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        Map<Role, Long> actual = new EnumMap<>(Role.class);
+        for (RoleCount count : userRepository.countUsersByRole()) {
+            actual.put(count.getRole(), count.getTotal());
+        }
+        
+        for (Role role : Role.values()) {
+            long expected = actual.getOrDefault(role, 0L);
+            long previous = roleCounts.get(role).getAndSet(expected);
+            if (previous != expected) {
+                log.debug("Reconciled {} user count from {} to {}", role, previous, expected);
+            }
+        }
+    }
+    
+    public long getTotalUsers() {
+        long total = 0;
+        for (AtomicLong count : roleCounts.values()) {
+            total += count.get();
+        }
+        return total;
+    }
+    
+    public Map<Role, Long> getRoleCounts() {
+        Map<Role, Long> snapshot = new EnumMap<>(Role.class);
+        roleCounts.forEach((role, count) -> snapshot.put(role, count.get()));
+        return snapshot;
+    }
+}
@@ -0,0 +1,15 @@
+-- Users table as mapped by com.example.springbootwebapp.model.User. The unique constraint names
+-- are relied on to tell duplicate usernames from duplicate emails (UniqueViolations).
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(50) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    full_name VARCHAR(255) NOT NULL,
+    role VARCHAR(50) NOT NULL,
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+-- Keyset pagination by full name (username and email are covered by their unique indexes)
+CREATE INDEX idx_users_full_name_id ON users (full_name, id);
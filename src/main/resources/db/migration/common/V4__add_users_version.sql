@@ -0,0 +1,3 @@
+-- Optimistic-locking version for User (@Version). Existing rows and plain INSERTs, such as the
+-- bulk import, start at 0.
+ALTER TABLE users ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
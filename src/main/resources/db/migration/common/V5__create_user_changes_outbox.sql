@@ -0,0 +1,27 @@
+-- Transactional outbox for user mutations (UserChange). Rows are written in the same transaction
+-- as the change and get their feed_position later from the publisher, which holds the lock on
+-- user_change_feed while numbering, so positions become visible strictly in order and a change
+-- feed reader polling with ?since= never skips a row that committed late.
+CREATE TABLE user_changes (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    feed_position BIGINT,
+    change_type VARCHAR(20) NOT NULL,
+    user_id BIGINT NOT NULL,
+    username VARCHAR(50) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    full_name VARCHAR(255) NOT NULL,
+    role VARCHAR(50) NOT NULL,
+    changed_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT uk_user_changes_feed_position UNIQUE (feed_position)
+);
+
+CREATE TABLE user_change_feed (
+    id INT PRIMARY KEY,
+    last_position BIGINT NOT NULL
+);
+
+INSERT INTO user_change_feed (id, last_position) VALUES (1, 0);
+
+-- Existing users enter the feed as registrations, so a consumer starting at since=0 gets everyone
+INSERT INTO user_changes (change_type, user_id, username, email, full_name, role, changed_at)
+SELECT 'REGISTERED', id, username, email, full_name, role, CURRENT_TIMESTAMP FROM users ORDER BY id;
@@ -0,0 +1,6 @@
+-- Usernames and emails that differ only in case are duplicates. H2 has no expression indexes,
+-- so the lower-cased values are kept in generated columns carrying the unique constraints.
+ALTER TABLE users ADD COLUMN username_lower VARCHAR(50) GENERATED ALWAYS AS (LOWER(username));
+ALTER TABLE users ADD COLUMN email_lower VARCHAR(255) GENERATED ALWAYS AS (LOWER(email));
+ALTER TABLE users ADD CONSTRAINT uk_users_username_ci UNIQUE (username_lower);
+ALTER TABLE users ADD CONSTRAINT uk_users_email_ci UNIQUE (email_lower);
@@ -0,0 +1,6 @@
+-- Usernames and emails that differ only in case are duplicates
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_username_ci ON users (lower(username));
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_email_ci ON users (lower(email));
+
+-- Created by V1 on new databases; baselined databases from ddl-auto=update do not have it yet
+CREATE INDEX IF NOT EXISTS idx_users_full_name_id ON users (full_name, id);
@@ -0,0 +1,8 @@
+-- Trigram indexes behind the admin user search (UserRepository.search). They serve both
+-- substring ('%term%') and prefix ('term%') LIKE matches on the lower-cased columns.
+-- IF NOT EXISTS: databases that predate migrations may already have them.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_username_trgm ON users USING gin (lower(username) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_full_name_trgm ON users USING gin (lower(full_name) gin_trgm_ops);
@@ -0,0 +1,74 @@
+package com.example.springbootwebapp.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "app.web.page-shells.enabled=true")
+@AutoConfigureMockMvc
+class PageShellViewResolverTest {
+    
+    private static final Pattern CSRF_FIELD = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+    private static final Pattern STYLESHEET = Pattern.compile("href=\"(/css/style-[0-9a-f]{32}\\.css)\"");
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Test
+    void loginPage_Repeated_SplicesEachRequestsCsrfToken() throws Exception {
+        //Act
+        String first = mockMvc.perform(get("/login")).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String second = mockMvc.perform(get("/login")).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        
+        //Assert
+        String firstToken = csrfToken(first);
+        String secondToken = csrfToken(second);
+        assertNotEquals(firstToken, secondToken);
+        assertFalse(first.contains("Placeholder"));
+        assertEquals(first.replace(firstToken, ""), second.replace(secondToken, ""));
+    }
+    
+    @Test
+    void loginPage_WithErrorParam_RendersTemplate() throws Exception {
+        //Arrange
+        mockMvc.perform(get("/login"));
+        
+        //Act & Assert
+        mockMvc.perform(get("/login").param("error", "true"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Invalid username or password.")));
+    }
+    
+    @Test
+    void stylesheet_FingerprintedUrl_ServedGzippedAndImmutable() throws Exception {
+        //Arrange
+        String home = mockMvc.perform(get("/")).andReturn().getResponse().getContentAsString();
+        Matcher matcher = STYLESHEET.matcher(home);
+        assertTrue(matcher.find(), "home page should link the fingerprinted stylesheet");
+        
+        //Act & Assert
+        mockMvc.perform(get(matcher.group(1)).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+    }
+    
+    private static String csrfToken(String html) {
+        Matcher matcher = CSRF_FIELD.matcher(html);
+        assertTrue(matcher.find(), "page should carry a CSRF field");
+        return matcher.group(1);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.springbootwebapp.config;
+
+import com.example.springbootwebapp.dto.RegisterRequest;
+import com.example.springbootwebapp.dto.UserResponse;
+import com.example.springbootwebapp.service.UserService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Two unconnected H2 databases stand in for primary and replica, so "replication lag" is total:
+//a row is visible through a route only if it was written to that database. No second-level cache:
+//its regions are shared by every context in the JVM, and entities from these databases would be
+//served by id to the contexts running on testdb; it would also answer lookups without any route.
+@SpringBootTest(properties = {
+        "app.datasource.replica.enabled=true",
+        "spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY_URL,
+        "app.datasource.replica.url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "app.datasource.replica.sticky-window=PT1M",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
+})
+class ReadReplicaRoutingTest {
+    
+    static final String PRIMARY_URL = "jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private AuthenticationManager authenticationManager;
+    
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+    
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+    
+    //A real replica gets its schema from the primary; here it is migrated before the context starts
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "sa", "")
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .load()
+                .migrate();
+        new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""))
+                .update("MERGE INTO users (username, email, password, full_name, role, version) KEY (username)"
+                        + " VALUES ('replicaonly', 'replicaonly@example.com', 'x', 'Replica Only', 'USER', 0)");
+    }
+    
+    @Test
+    void getAllUsers_ReadOnlyTransaction_ReadsReplica() {
+        //Act
+        List<String> usernames = usernames(userService.getAllUsers());
+        
+        //Assert
+        assertTrue(usernames.contains("replicaonly"));
+        assertFalse(usernames.contains("admin"));
+    }
+    
+    @Test
+    void registerUser_WritesPrimaryOnly() {
+        //Act
+        userService.registerUser(new RegisterRequest("routedwriter", "routedwriter@example.com", "password123", "Routed Writer"));
+        
+        //Assert
+        assertEquals(1, countUsers(primaryDataSource, "routedwriter"));
+        assertEquals(0, countUsers(replicaDataSource, "routedwriter"));
+    }
+    
+    @Test
+    @WithMockUser(username = "stickyuser")
+    void getAllUsers_AfterOwnWrite_StaysOnPrimary() {
+        //Arrange
+        userService.registerUser(new RegisterRequest("stickyuser", "stickyuser@example.com", "password123", "Sticky User"));
+        
+        //Act
+        List<String> usernames = usernames(userService.getAllUsers());
+        
+        //Assert
+        assertTrue(usernames.contains("stickyuser"));
+        assertFalse(usernames.contains("replicaonly"));
+    }
+    
+    @Test
+    @WithMockUser(username = "bystander")
+    void getAllUsers_AfterAnotherUsersWrite_ReadsReplica() {
+        //Arrange
+        userService.registerUser(new RegisterRequest("otherwriter", "otherwriter@example.com", "password123", "Other Writer"));
+        
+        //Act
+        List<String> usernames = usernames(userService.getAllUsers());
+        
+        //Assert
+        assertFalse(usernames.contains("otherwriter"));
+        assertTrue(usernames.contains("replicaonly"));
+    }
+    
+    //Still anonymous: the sign-in lookup is pinned by the username being signed in, not the principal
+    @Test
+    void authenticate_RightAfterRegistering_FindsAccountOnPrimary() {
+        //Arrange
+        userService.registerUser(new RegisterRequest("freshlogin", "freshlogin@example.com", "password123", "Fresh Login"));
+        
+        //Act
+        Authentication authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken("freshlogin", "password123"));
+        
+        //Assert
+        assertTrue(authentication.isAuthenticated());
+        assertEquals("freshlogin", authentication.getName());
+    }
+    
+    private static List<String> usernames(List<UserResponse> users) {
+        return users.stream().map(UserResponse::getUsername).toList();
+    }
+    
+    private static int countUsers(DataSource dataSource, String username) {
+        Integer count = new JdbcTemplate(dataSource)
+                .queryForObject("SELECT COUNT(*) FROM users WHERE username = ?", Integer.class, username);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.springbootwebapp.controller;
+
+import com.example.springbootwebapp.service.CustomUserDetailsService;
+import com.example.springbootwebapp.service.EntityCacheStatsService;
+import com.example.springbootwebapp.service.UserChangeFeedService;
+import com.example.springbootwebapp.service.UserDataFormat;
+import com.example.springbootwebapp.service.UserExportService;
+import com.example.springbootwebapp.service.UserImportService;
+import com.example.springbootwebapp.service.UserService;
+import com.example.springbootwebapp.service.UserStatsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AdminController.class)
+class AdminControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @MockBean
+    private UserService userService;
+    
+    @MockBean
+    private UserStatsService userStatsService;
+    
+    @MockBean
+    private CustomUserDetailsService userDetailsService;
+    
+    @MockBean
+    private UserImportService userImportService;
+    
+    @MockBean
+    private UserExportService userExportService;
+    
+    @MockBean
+    private EntityCacheStatsService entityCacheStatsService;
+    
+    @MockBean
+    private AdminTableCache adminTableCache;
+    
+    @MockBean
+    private UserChangeFeedService userChangeFeedService;
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void importUsersStream_CsvHeaderMissingColumn_ReturnsBadRequest() throws Exception {
+        //Arrange
+        when(userImportService.importUsers(any(InputStream.class), eq(UserDataFormat.CSV)))
+                .thenThrow(new IllegalArgumentException("CSV header is missing the 'password' column"));
+        
+        //Act & Assert
+        mockMvc.perform(post("/admin/users/import").with(csrf())
+                        .contentType("text/csv")
+                        .content("username,email\nalice,alice@example.com\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("CSV header is missing the 'password' column"));
+    }
+}
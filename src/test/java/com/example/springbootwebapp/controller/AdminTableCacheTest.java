@@ -0,0 +1,114 @@
+package com.example.springbootwebapp.controller;
+
+import com.example.springbootwebapp.dto.ProfileUpdateRequest;
+import com.example.springbootwebapp.dto.RegisterRequest;
+import com.example.springbootwebapp.dto.UserResponse;
+import com.example.springbootwebapp.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AdminTableCacheTest {
+    
+    @Autowired
+    private AdminTableCache adminTableCache;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private final AtomicInteger loads = new AtomicInteger();
+    
+    @BeforeEach
+    void setUp() {
+        adminTableCache.invalidate();
+    }
+    
+    @Test
+    void get_Repeated_ServedFromCache() {
+        //Act
+        AdminTableCache.RenderedTable<List<UserResponse>> first = load();
+        AdminTableCache.RenderedTable<List<UserResponse>> second = load();
+        
+        //Assert
+        assertEquals(1, loads.get());
+        assertSame(first, second);
+    }
+    
+    @Test
+    void get_AfterRegistration_ReloadsAndRenders() {
+        //Arrange
+        load();
+        
+        //Act
+        userService.registerUser(new RegisterRequest("tableuser", "table@example.com", "password123", "Table User"));
+        AdminTableCache.RenderedTable<List<UserResponse>> table = load();
+        
+        //Assert
+        assertEquals(2, loads.get());
+        assertTrue(table.rows().contains("tableuser"));
+    }
+    
+    @Test
+    void get_AfterProfileUpdate_Reloads() {
+        //Arrange
+        userService.registerUser(new RegisterRequest("tableedit", "edit@example.com", "password123", "Before Edit"));
+        load();
+        
+        //Act
+        userService.updateProfile("tableedit", new ProfileUpdateRequest("After Edit", "edit@example.com"));
+        AdminTableCache.RenderedTable<List<UserResponse>> table = load();
+        
+        //Assert
+        assertEquals(2, loads.get());
+        assertTrue(table.rows().contains("After Edit"));
+        assertFalse(table.rows().contains("Before Edit"));
+    }
+    
+    @Test
+    void get_AfterWriteOnAnotherInstance_ReloadsAndChangesStamp() {
+        //Arrange
+        load();
+        String before = adminTableCache.changeStamp();
+        
+        //Act: an outbox row committed without any event reaching this instance
+        jdbcTemplate.update("INSERT INTO user_changes (change_type, user_id, username, email, full_name, role, changed_at)"
+                + " SELECT 'UPDATED', id, username, email, full_name, role, CURRENT_TIMESTAMP FROM users"
+                + " ORDER BY id FETCH FIRST 1 ROW ONLY");
+        load();
+        
+        //Assert
+        assertEquals(2, loads.get());
+        assertNotEquals(before, adminTableCache.changeStamp());
+    }
+    
+    @Test
+    void render_EscapesUserInput() {
+        //Arrange
+        UserResponse user = new UserResponse(1L, "x", "x@example.com", "<script>", null);
+        
+        //Act
+        String rows = adminTableCache.render(List.of(user));
+        
+        //Assert
+        assertTrue(rows.contains("&lt;script&gt;"));
+    }
+    
+    private AdminTableCache.RenderedTable<List<UserResponse>> load() {
+        return adminTableCache.get("test:recent", () -> {
+            loads.incrementAndGet();
+            return userService.getRecentUsers(50);
+        }, Function.identity());
+    }
+}
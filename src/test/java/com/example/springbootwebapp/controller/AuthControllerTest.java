@@ -1,13 +1,16 @@
 package com.example.springbootwebapp.controller;
 
+import com.example.springbootwebapp.config.SecurityConfig;
 import com.example.springbootwebapp.dto.RegisterRequest;
 import com.example.springbootwebapp.dto.UserResponse;
 import com.example.springbootwebapp.model.Role;
+import com.example.springbootwebapp.service.CustomUserDetailsService;
 import com.example.springbootwebapp.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -18,7 +21,9 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+//The application's own filter chains, so the public pages are reachable without signing in
 @WebMvcTest(AuthController.class)
+@Import(SecurityConfig.class)
 class AuthControllerTest {
     
     @Autowired
@@ -27,6 +32,9 @@ class AuthControllerTest {
     @MockBean
     private UserService userService;
     
+    @MockBean
+    private CustomUserDetailsService userDetailsService;
+    
     @Test
     void loginPage_ReturnsLoginView() throws Exception {
         mockMvc.perform(get("/login"))
@@ -4,13 +4,18 @@ import com.example.springbootwebapp.dto.ProfileUpdateRequest;
 import com.example.springbootwebapp.dto.UserResponse;
 import com.example.springbootwebapp.model.Role;
 import com.example.springbootwebapp.service.UserService;
+import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
@@ -43,6 +48,29 @@ class ProfileControllerTest {
                 .andExpect(model().attributeExists("profileUpdateRequest"));
     }
     
+    @Test
+    @WithMockUser(username = "testuser")
+    void profilePage_UnchangedVersion_ReturnsNotModified() throws Exception {
+        //Arrange
+        UserResponse userResponse = new UserResponse(1L, "testuser", "test@example.com", "Test User", Role.USER, 3L);
+        when(userService.getUserByUsername("testuser")).thenReturn(userResponse);
+        Cookie sessionCookie = new Cookie("JSESSIONID", "session-1");
+        String etag = mockMvc.perform(get("/profile").cookie(sessionCookie))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        
+        //Act & Assert
+        mockMvc.perform(get("/profile").cookie(sessionCookie).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        
+        userResponse.setVersion(4L);
+        mockMvc.perform(get("/profile").cookie(sessionCookie).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(view().name("profile"));
+    }
+    
     @Test
     @WithMockUser(username = "testuser")
     void updateProfile_ValidData_Success() throws Exception {
@@ -59,6 +87,27 @@ class ProfileControllerTest {
                 .andExpect(redirectedUrl("/profile"));
     }
     
+    @Test
+    @WithMockUser(username = "testuser")
+    void updateProfile_StaleVersion_ShowsCurrentProfile() throws Exception {
+        //Arrange
+        UserResponse current = new UserResponse(1L, "testuser", "other@example.com", "Changed Elsewhere", Role.USER, 5L);
+        when(userService.updateProfile(eq("testuser"), any(ProfileUpdateRequest.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException("Your profile was changed", null));
+        when(userService.getUserByUsername("testuser")).thenReturn(current);
+        
+        //Act & Assert
+        mockMvc.perform(post("/profile/update")
+                .with(csrf())
+                .param("fullName", "Updated Name")
+                .param("email", "updated@example.com")
+                .param("version", "4"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("profile"))
+                .andExpect(model().attribute("errorMessage", "Your profile was changed"))
+                .andExpect(model().attribute("profileUpdateRequest", hasProperty("version", is(5L))));
+    }
+    
     @Test
     @WithMockUser(username = "testuser")
     void updateProfile_InvalidEmail_ReturnsProfileView() throws Exception {
@@ -0,0 +1,204 @@
+package com.example.springbootwebapp.controller;
+
+import com.example.springbootwebapp.dto.RegisterRequest;
+import com.example.springbootwebapp.repository.UserRepository;
+import com.example.springbootwebapp.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserApiControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @BeforeEach
+    void setUp() {
+        for (String name : new String[] {"apiuser", "apiuser2", "apiuser3"}) {
+            if (!userRepository.existsByUsername(name)) {
+                userService.registerUser(new RegisterRequest(name, name + "@example.com", "password123", "Api User"));
+            }
+        }
+    }
+    
+    @Test
+    @WithMockUser(username = "apiuser")
+    void profile_WithFields_ReturnsOnlySelectedProperties() throws Exception {
+        //Act
+        String body = mockMvc.perform(get("/api/profile").param("fields", "username,email"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+        
+        //Assert
+        JsonNode json = objectMapper.readTree(body);
+        assertEquals("apiuser", json.get("username").asText());
+        assertEquals("apiuser@example.com", json.get("email").asText());
+        assertEquals(2, json.size());
+    }
+    
+    @Test
+    @WithMockUser(username = "apiuser")
+    void profile_UnknownField_ReturnsBadRequest() throws Exception {
+        //Act & Assert
+        mockMvc.perform(get("/api/profile").param("fields", "password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Unknown field: password"));
+    }
+    
+    @Test
+    @WithMockUser(username = "apiuser")
+    void profile_UnchangedVersion_ReturnsNotModified() throws Exception {
+        //Arrange
+        String etag = mockMvc.perform(get("/api/profile"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        
+        //Act & Assert
+        mockMvc.perform(get("/api/profile").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/profile").param("fields", "id").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+    
+    @Test
+    @WithMockUser(username = "apiuser3")
+    void updateProfile_StaleVersion_ReturnsConflict() throws Exception {
+        //Arrange
+        long version = userService.getUserByUsername("apiuser3").getVersion();
+        mockMvc.perform(put("/api/profile").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fullName\":\"Renamed\",\"email\":\"apiuser3@example.com\",\"version\":" + version + "}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fullName").value("Renamed"));
+        
+        //Act & Assert
+        mockMvc.perform(put("/api/profile").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fullName\":\"Again\",\"email\":\"apiuser3@example.com\",\"version\":" + version + "}"))
+                .andExpect(status().isConflict());
+    }
+    
+    @Test
+    @WithMockUser(username = "apiuser2")
+    void updateProfile_EmailTaken_ReturnsConflict() throws Exception {
+        //Arrange
+        long version = userService.getUserByUsername("apiuser2").getVersion();
+        
+        //Act & Assert
+        mockMvc.perform(put("/api/profile").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fullName\":\"Api User\",\"email\":\"apiuser@example.com\",\"version\":" + version + "}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Email already exists"));
+    }
+    
+    @Test
+    @WithMockUser(username = "apiuser2")
+    void updateProfile_NoVersion_ReturnsBadRequest() throws Exception {
+        //Act & Assert
+        mockMvc.perform(put("/api/profile").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fullName\":\"Unversioned\",\"email\":\"apiuser2@example.com\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Version is required"));
+        assertEquals("Api User", userService.getUserByUsername("apiuser2").getFullName());
+    }
+    
+    @Test
+    @WithMockUser(username = "apighost")
+    void profile_UnknownUser_ReturnsNotFound() throws Exception {
+        //Act & Assert
+        mockMvc.perform(get("/api/profile"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("User not found"));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void users_ListItems_CarryVersion() throws Exception {
+        //Act
+        JsonNode page = objectMapper.readTree(mockMvc.perform(get("/api/users").param("fields", "username,version"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        
+        //Assert
+        assertFalse(page.get("users").isEmpty());
+        for (JsonNode user : page.get("users")) {
+            assertTrue(user.get("version").isNumber());
+        }
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void users_FollowingNextCursor_WalksEveryPage() throws Exception {
+        //Arrange
+        long total = userRepository.count();
+        
+        //Act
+        long seen = 0;
+        String after = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/users").param("size", "2").param("fields", "id,username");
+            if (after != null) {
+                request.param("after", after);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            for (JsonNode user : page.get("users")) {
+                assertEquals(2, user.size());
+                seen++;
+            }
+            after = page.get("next").isNull() ? null : page.get("next").asText();
+        } while (after != null);
+        
+        //Assert
+        assertEquals(total, seen);
+    }
+    
+    @Test
+    @WithMockUser(username = "apiuser")
+    void users_NonAdmin_Forbidden() throws Exception {
+        //Act & Assert
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isForbidden());
+    }
+    
+    @Test
+    void profile_Anonymous_UnauthorizedWithoutRedirect() throws Exception {
+        //Act & Assert
+        mockMvc.perform(get("/api/profile"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().doesNotExist(HttpHeaders.LOCATION));
+        mockMvc.perform(get("/profile"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrlPattern("**/login"));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.springbootwebapp.jmh;
+
+import com.example.springbootwebapp.SpringBootWebAppApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+//Boots the application without a web server on its own in-memory H2 database for a benchmark trial
+final class BenchmarkContexts {
+    
+    private BenchmarkContexts() {
+    }
+    
+    static ConfigurableApplicationContext start(String database) {
+        return new SpringApplicationBuilder(SpringBootWebAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+    }
+    
+    //Adds users bench1..benchN alongside the two seeded accounts
+    static void seedUsers(ConfigurableApplicationContext context, int count) {
+        context.getBean(JdbcTemplate.class).update("INSERT INTO users (username, email, password, full_name, role) "
+                + "SELECT 'bench' || X, 'bench' || X || '@example.com', 'not-a-hash', 'Bench User ' || X, 'USER' "
+                + "FROM SYSTEM_RANGE(1, ?)", count);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.springbootwebapp.jmh;
+
+import com.example.springbootwebapp.service.CustomUserDetailsService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+//Login user lookup at each cache layer: the Caffeine user-details cache, Hibernate's second-level
+//cache, and a full H2 round trip
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserDetailsServiceBenchmark {
+    
+    private static final int ROWS = 10_000;
+    
+    private ConfigurableApplicationContext context;
+    private CustomUserDetailsService userDetailsService;
+    private Cache secondLevelCache;
+    
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContexts.start("jmh-user-details");
+        BenchmarkContexts.seedUsers(context, ROWS);
+        userDetailsService = context.getBean(CustomUserDetailsService.class);
+        secondLevelCache = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getCache();
+    }
+    
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+    
+    @Benchmark
+    public UserDetails userDetailsCacheHit() {
+        return userDetailsService.loadUserByUsername("bench1");
+    }
+    
+    @Benchmark
+    public UserDetails secondLevelCacheHit() {
+        userDetailsService.evict("bench2");
+        return userDetailsService.loadUserByUsername("bench2");
+    }
+    
+    @Benchmark
+    public UserDetails databaseLoad() {
+        userDetailsService.evict("bench3");
+        secondLevelCache.evictAllRegions();
+        return userDetailsService.loadUserByUsername("bench3");
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.springbootwebapp.jmh;
+
+import com.example.springbootwebapp.dto.UserPage;
+import com.example.springbootwebapp.dto.UserResponse;
+import com.example.springbootwebapp.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserServiceBenchmark {
+    
+    @Param({"1000", "10000"})
+    public int rows;
+    
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContexts.start("jmh-user-service-" + rows);
+        BenchmarkContexts.seedUsers(context, rows);
+        userService = context.getBean(UserService.class);
+        userService.getUserByUsername("bench1");
+    }
+    
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+    
+    @Benchmark
+    public List<UserResponse> getAllUsers() {
+        return userService.getAllUsers();
+    }
+    
+    //The entity is served from the second-level cache, so this is mostly the transaction and mapToResponse
+    @Benchmark
+    public UserResponse getUserByUsername() {
+        return userService.getUserByUsername("bench1");
+    }
+    
+    @Benchmark
+    public UserPage getUsersPage() {
+        return userService.getUsersPage("username", "asc", UserService.DEFAULT_PAGE_SIZE, null, null);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.springbootwebapp.jmh;
+
+import com.example.springbootwebapp.dto.UserPage;
+import com.example.springbootwebapp.dto.UserResponse;
+import com.example.springbootwebapp.model.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//Renders admin/users.html with the production template settings (cached, parsed once) against
+//an in-memory page of users; measures Thymeleaf alone, no controller or database
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UsersTemplateBenchmark {
+    
+    @Param({"10000"})
+    public int rows;
+    
+    private SpringTemplateEngine templateEngine;
+    private MockServletContext servletContext;
+    private JakartaServletWebApplication application;
+    private Map<String, Object> variables;
+    
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        
+        servletContext = new MockServletContext();
+        application = JakartaServletWebApplication.buildApplication(servletContext);
+        
+        List<UserResponse> users = new ArrayList<>(rows);
+        for (long id = 1; id <= rows; id++) {
+            users.add(new UserResponse(id, "user" + id, "user" + id + "@example.com", "User Number " + id, Role.USER));
+        }
+        UserPage page = new UserPage(users, "id", "asc", rows, "next-cursor", null);
+        variables = Map.of("page", page, "users", users);
+    }
+    
+    @Benchmark
+    public String renderUsersPage() {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", "/admin/users");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        WebContext context = new WebContext(application.buildExchange(request, response), Locale.US, variables);
+        return templateEngine.process("admin/users", context);
+    }
+}
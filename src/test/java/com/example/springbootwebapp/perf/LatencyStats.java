@@ -0,0 +1,63 @@
+package com.example.springbootwebapp.perf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+//Collects raw per-endpoint latencies from many client threads and summarizes them as percentiles
+public class LatencyStats {
+    
+    private final Map<String, Queue<Long>> samples = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    
+    public void record(String endpoint, long nanos) {
+        samples.computeIfAbsent(endpoint, key -> new ConcurrentLinkedQueue<>()).add(nanos);
+    }
+    
+    public void recordError(String endpoint) {
+        errors.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+    }
+    
+    public List<Summary> summarize(double elapsedSeconds) {
+        List<Summary> summaries = new ArrayList<>();
+        new TreeMap<>(samples).forEach((endpoint, queue) -> {
+            long[] sorted = queue.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            LongAdder errorCount = errors.get(endpoint);
+            summaries.add(new Summary(endpoint, sorted.length, errorCount == null ? 0 : errorCount.sum(),
+                    sorted.length / elapsedSeconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95),
+                    percentile(sorted, 0.99), percentile(sorted, 0.999)));
+        });
+        return summaries;
+    }
+    
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+    
+    public record Summary(String endpoint, long requests, long errors, double throughput,
+                          double p50Millis, double p95Millis, double p99Millis, double p999Millis) {
+        
+        public static String header() {
+            return String.format("%-22s %9s %7s %10s %9s %9s %9s %9s",
+                    "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "p999 ms");
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%-22s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f",
+                    endpoint, requests, errors, throughput, p50Millis, p95Millis, p99Millis, p999Millis);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.springbootwebapp.perf;
+
+import com.example.springbootwebapp.SpringBootWebAppApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//Open-loop load generator: boots the app on H2 and starts user flows at a fixed arrival rate,
+//independent of how fast the server answers, with at most load.concurrency flows in flight.
+//Arrivals that find every slot busy are counted as dropped instead of silently delaying the
+//schedule, and each "flow" latency is measured from its scheduled start, so queueing shows up.
+//
+//  login    GET /login, POST /login
+//  register GET /register, POST /register (a new account each time)
+//  profile  GET /login, POST /login, GET /profile, POST /profile/update
+//
+//Run with: mvn test -Pbenchmark -Dtest=LoadTestHarness [-Dload.rate=50] [-Dload.concurrency=100]
+//          [-Dload.duration=60] [-Dload.mix=login:50,register:20,profile:30] [-Dload.bcrypt-strength=10]
+@Tag("benchmark")
+class LoadTestHarness {
+    
+    private static final double RATE = Double.parseDouble(System.getProperty("load.rate", "20"));
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 50);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup", 10);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration", 60);
+    private static final int ACCOUNTS = Integer.getInteger("load.accounts", 200);
+    private static final int BCRYPT_STRENGTH = Integer.getInteger("load.bcrypt-strength", 10);
+    private static final String MIX = System.getProperty("load.mix", "login:50,register:20,profile:30");
+    private static final String PASSWORD = "loadtest123";
+    
+    private final AtomicLong registrations = new AtomicLong();
+    private final ThreadLocal<WebClientSession> sessions = new ThreadLocal<>();
+    
+    @Test
+    void runLoad() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootWebAppApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load-test;DB_CLOSE_DELAY=-1",
+                        "app.security.bcrypt.strength=" + BCRYPT_STRENGTH,
+                        //every simulated client shares 127.0.0.1
+                        "app.security.login-throttle.enabled=false",
+                        //the outbox publisher runs as in production, unlike in the tests
+                        "app.scheduling.enabled=true",
+                        "logging.level.root=WARN")
+                .run()) {
+            seedAccounts(context.getBean(JdbcTemplate.class));
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            Map<String, Integer> mix = parseMix(MIX);
+            
+            drive(baseUrl, mix, new LatencyStats(), WARMUP_SECONDS, new LongAdder());
+            LatencyStats stats = new LatencyStats();
+            LongAdder dropped = new LongAdder();
+            drive(baseUrl, mix, stats, DURATION_SECONDS, dropped);
+            List<LatencyStats.Summary> summaries = stats.summarize(DURATION_SECONDS);
+            
+            System.out.println();
+            System.out.printf("Offered %.1f flows/s for %ds, concurrency %d, mix %s, %d arrivals dropped%n",
+                    RATE, DURATION_SECONDS, CONCURRENCY, mix, dropped.sum());
+            System.out.println(LatencyStats.Summary.header());
+            summaries.forEach(System.out::println);
+            
+            assertTrue(summaries.stream().anyMatch(summary -> summary.requests() > 0));
+        }
+    }
+    
+    //Accounts share one precomputed hash so seeding costs a single BCrypt run
+    private void seedAccounts(JdbcTemplate jdbcTemplate) {
+        String hash = new BCryptPasswordEncoder(BCRYPT_STRENGTH).encode(PASSWORD);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= ACCOUNTS; i++) {
+            rows.add(new Object[]{"load" + i, "load" + i + "@example.com", hash, "Load User " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (username, email, password, full_name, role) "
+                + "VALUES (?, ?, ?, ?, 'USER')", rows);
+    }
+    
+    private void drive(String baseUrl, Map<String, Integer> mix, LatencyStats stats, int seconds,
+                       LongAdder dropped) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(CONCURRENCY);
+        Semaphore slots = new Semaphore(CONCURRENCY);
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / RATE);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        try {
+            for (long scheduled = start; scheduled < end; scheduled += intervalNanos) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (!slots.tryAcquire()) {
+                    dropped.increment();
+                    continue;
+                }
+                String flow = pickFlow(mix);
+                long scheduledStart = scheduled;
+                workers.execute(() -> {
+                    try {
+                        boolean ok = runFlow(flow, session(baseUrl, stats));
+                        stats.record("flow " + flow, System.nanoTime() - scheduledStart);
+                        if (!ok) {
+                            stats.recordError("flow " + flow);
+                        }
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+    
+    //One HttpClient per worker thread (each drive() has its own pool), reset to a new visitor per flow
+    private WebClientSession session(String baseUrl, LatencyStats stats) {
+        WebClientSession session = sessions.get();
+        if (session == null) {
+            session = new WebClientSession(baseUrl, stats);
+            sessions.set(session);
+        }
+        session.clearCookies();
+        return session;
+    }
+    
+    private boolean runFlow(String flow, WebClientSession session) {
+        return switch (flow) {
+            case "login" -> session.login(randomAccount(), PASSWORD);
+            case "register" -> register(session);
+            case "profile" -> updateProfile(session);
+            default -> throw new IllegalArgumentException("Unknown flow: " + flow);
+        };
+    }
+    
+    private boolean register(WebClientSession session) {
+        HttpResponse<String> page = session.get("GET /register", "/register");
+        String token = page == null ? null : WebClientSession.csrfToken(page.body());
+        if (token == null) {
+            return false;
+        }
+        String username = "reg" + registrations.incrementAndGet();
+        HttpResponse<String> response = session.postForm("POST /register", "/register", Map.of(
+                "username", username,
+                "email", username + "@example.com",
+                "password", PASSWORD,
+                "fullName", "Registered " + username,
+                "_csrf", token));
+        return redirectsTo(response, "/login");
+    }
+    
+    private boolean updateProfile(WebClientSession session) {
+        String username = randomAccount();
+        if (!session.login(username, PASSWORD)) {
+            return false;
+        }
+        HttpResponse<String> page = session.get("GET /profile", "/profile");
+        String token = page == null ? null : WebClientSession.csrfToken(page.body());
+        if (token == null) {
+            return false;
+        }
+        HttpResponse<String> response = session.postForm("POST /profile/update", "/profile/update", Map.of(
+                "fullName", "Load User " + ThreadLocalRandom.current().nextInt(1_000_000),
+                "email", username + "@example.com",
+                "_csrf", token));
+        return redirectsTo(response, "/profile");
+    }
+    
+    private boolean redirectsTo(HttpResponse<String> response, String path) {
+        return response != null && response.statusCode() == 302
+                && response.headers().firstValue("Location").orElse("").endsWith(path);
+    }
+    
+    private String randomAccount() {
+        return "load" + (ThreadLocalRandom.current().nextInt(ACCOUNTS) + 1);
+    }
+    
+    private String pickFlow(Map<String, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int pick = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty flow mix");
+    }
+    
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] entry = part.trim().split(":");
+            weights.put(entry[0], Integer.parseInt(entry[1]));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.springbootwebapp.perf;
+
+import com.example.springbootwebapp.SpringBootWebAppApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+//Cold-start time-to-ready: launches the app in a fresh JVM startup.runs times and measures from
+//process start until /actuator/health answers 200, next to Spring's own "Started ... in" figure.
+//By default it runs the test classpath; point startup.jar at a packaged or extracted WAR to compare
+//builds, e.g. the cds (and aot) profile's output with and without its class-data-sharing archive:
+//
+//Run with: mvn test -Pbenchmark -Dtest=StartupTimeHarness [-Dstartup.runs=5]
+//          [-Dstartup.jar=target/cds/springbootwebapp-0.0.1-SNAPSHOT.jar]
+//          [-Dstartup.jvm-args="-XX:SharedArchiveFile=target/cds/application.jsa -Dspring.aot.enabled=true"]
+@Tag("benchmark")
+class StartupTimeHarness {
+    
+    private static final int RUNS = Integer.getInteger("startup.runs", 5);
+    private static final int TIMEOUT_SECONDS = Integer.getInteger("startup.timeout", 120);
+    private static final String JAR = System.getProperty("startup.jar", "");
+    private static final String JVM_ARGS = System.getProperty("startup.jvm-args", "");
+    private static final Pattern STARTED = Pattern.compile("Started \\w+ in ([0-9.]+) seconds");
+    private static final int OUTPUT_LINES_KEPT = 50;
+    
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+    
+    @Test
+    void measureTimeToReady() throws Exception {
+        List<Run> runs = new ArrayList<>();
+        for (int i = 0; i < RUNS; i++) {
+            runs.add(launch());
+        }
+        
+        System.out.println();
+        System.out.println("Startup of " + (JAR.isEmpty() ? "test classpath" : JAR)
+                + (JVM_ARGS.isEmpty() ? "" : " with " + JVM_ARGS) + ", " + RUNS + " cold runs");
+        System.out.printf("%-6s %15s %17s%n", "run", "ready ms", "spring-reported s");
+        for (int i = 0; i < runs.size(); i++) {
+            System.out.printf("%-6d %15d %17s%n", i + 1, runs.get(i).readyMillis(), runs.get(i).reportedSeconds());
+        }
+        long[] ready = runs.stream().mapToLong(Run::readyMillis).sorted().toArray();
+        System.out.printf("time-to-ready ms: min %d, median %d, max %d%n",
+                ready[0], ready[ready.length / 2], ready[ready.length - 1]);
+        
+        assertEquals(RUNS, runs.size());
+    }
+    
+    private Run launch() throws Exception {
+        int port = freePort();
+        List<String> command = command(port);
+        Deque<String> output = new ArrayDeque<>();
+        String[] reported = {"-"};
+        
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        Thread reader = drain(process, output, reported);
+        long readyMillis;
+        try {
+            long deadline = start + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+            URI health = URI.create("http://localhost:" + port + "/actuator/health");
+            while (!isUp(health)) {
+                if (!process.isAlive() || System.nanoTime() > deadline) {
+                    fail("Application did not become ready; last output:\n" + String.join("\n", snapshot(output)));
+                }
+                Thread.sleep(10);
+            }
+            readyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+            reader.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        return new Run(readyMillis, reported[0]);
+    }
+    
+    //Same in-memory H2 settings for every launch mode, so only the JVM and the artifact differ
+    private List<String> command(int port) {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        if (!JVM_ARGS.isBlank()) {
+            command.addAll(Arrays.asList(JVM_ARGS.trim().split("\\s+")));
+        }
+        if (JAR.isEmpty()) {
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(SpringBootWebAppApplication.class.getName());
+        } else {
+            command.add("-jar");
+            command.add(JAR);
+        }
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=jdbc:h2:mem:startup");
+        command.add("--spring.datasource.driver-class-name=org.h2.Driver");
+        command.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        command.add("--app.scheduling.enabled=true");
+        command.add("--logging.level.root=WARN");
+        command.add("--logging.level." + SpringBootWebAppApplication.class.getName() + "=INFO");
+        return command;
+    }
+    
+    private boolean isUp(URI health) throws InterruptedException {
+        try {
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(health).timeout(Duration.ofSeconds(1)).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() == 200;
+        } catch (IOException e) {
+            //Not listening yet
+            return false;
+        }
+    }
+    
+    //Keeps the pipe empty so the child never blocks on logging, and picks out Spring's startup line
+    private Thread drain(Process process, Deque<String> output, String[] reported) {
+        Thread reader = new Thread(() -> {
+            try (BufferedReader lines = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    Matcher matcher = STARTED.matcher(line);
+                    if (matcher.find()) {
+                        reported[0] = matcher.group(1);
+                    }
+                    synchronized (output) {
+                        output.addLast(line);
+                        if (output.size() > OUTPUT_LINES_KEPT) {
+                            output.removeFirst();
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                //Process ended
+            }
+        }, "startup-output");
+        reader.setDaemon(true);
+        reader.start();
+        return reader;
+    }
+    
+    private List<String> snapshot(Deque<String> output) {
+        synchronized (output) {
+            return new ArrayList<>(output);
+        }
+    }
+    
+    private int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+    
+    private record Run(long readyMillis, String reportedSeconds) {
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.springbootwebapp.perf;
+
+import com.example.springbootwebapp.SpringBootWebAppApplication;
+import com.example.springbootwebapp.service.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//Seeds a large users table and compares the ranked, paginated admin search with a naive unbounded
+//LIKE '%x%' scan over the raw columns. H2 by default (both sides scan there); pass a PostgreSQL URL
+//to measure the trigram indexes. The table is reused across runs once seeded.
+//Run with: mvn test -Pbenchmark -Dtest=UserSearchBenchmark [-Dbenchmark.rows=1000000]
+//          [-Dbenchmark.datasource.url=jdbc:postgresql://localhost:5432/userdb]
+@Tag("benchmark")
+class UserSearchBenchmark {
+    
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 200);
+    private static final String URL = System.getProperty("benchmark.datasource.url",
+            "jdbc:h2:file:./target/h2/search-benchmark");
+    private static final boolean POSTGRES = URL.startsWith("jdbc:postgresql:");
+    private static final String[] TERMS = {"user4242", "42424", "person 1234", "@example", "ab", "nomatch"};
+    
+    private static final String NAIVE_SEARCH = "SELECT id, username, email, full_name, role FROM users"
+            + " WHERE username LIKE ? OR email LIKE ? OR full_name LIKE ?";
+    
+    @Test
+    void compareIndexedSearchWithNaiveLike() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootWebAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(datasourceProperties())
+                .run()) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            UserService userService = context.getBean(UserService.class);
+            seed(jdbcTemplate);
+            
+            run(jdbcTemplate, userService, new LatencyStats(), ITERATIONS / 10);
+            LatencyStats stats = new LatencyStats();
+            long start = System.nanoTime();
+            run(jdbcTemplate, userService, stats, ITERATIONS);
+            List<LatencyStats.Summary> summaries = stats.summarize((System.nanoTime() - start) / 1e9);
+            
+            System.out.println();
+            System.out.println(ROWS + " rows on " + (POSTGRES ? "PostgreSQL" : "H2") + ", " + ITERATIONS
+                    + " iterations per term");
+            System.out.println(LatencyStats.Summary.header());
+            summaries.forEach(System.out::println);
+            
+            assertTrue(summaries.stream().allMatch(summary -> summary.requests() > 0));
+        }
+    }
+    
+    private String[] datasourceProperties() {
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.datasource.url=" + URL,
+                "app.security.bcrypt.strength=4",
+                "logging.level.root=WARN"));
+        if (POSTGRES) {
+            properties.addAll(List.of(
+                    "spring.datasource.driver-class-name=org.postgresql.Driver",
+                    "spring.datasource.username=" + System.getProperty("benchmark.datasource.username", "postgres"),
+                    "spring.datasource.password=" + System.getProperty("benchmark.datasource.password", "postgres"),
+                    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"));
+        }
+        return properties.toArray(String[]::new);
+    }
+    
+    private void seed(JdbcTemplate jdbcTemplate) {
+        long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        if (existing >= ROWS) {
+            return;
+        }
+        String insert = POSTGRES
+                ? "INSERT INTO users (username, email, password, full_name, role)"
+                + " SELECT 'user' || g, 'user' || g || '@example.com', 'not-a-hash', 'Person ' || g, 'USER'"
+                + " FROM generate_series(?, ?) g"
+                : "INSERT INTO users (username, email, password, full_name, role)"
+                + " SELECT 'user' || X, 'user' || X || '@example.com', 'not-a-hash', 'Person ' || X, 'USER'"
+                + " FROM SYSTEM_RANGE(?, ?)";
+        jdbcTemplate.update(insert, existing + 1, (long) ROWS);
+        if (POSTGRES) {
+            jdbcTemplate.execute("ANALYZE users");
+        }
+    }
+    
+    private void run(JdbcTemplate jdbcTemplate, UserService userService, LatencyStats stats, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            for (String term : TERMS) {
+                long start = System.nanoTime();
+                userService.searchUsers(term, 0, UserService.DEFAULT_PAGE_SIZE);
+                stats.record("search " + term, System.nanoTime() - start);
+                
+                String pattern = "%" + term + "%";
+                start = System.nanoTime();
+                jdbcTemplate.queryForList(NAIVE_SEARCH, pattern, pattern, pattern);
+                stats.record("naive  " + term, System.nanoTime() - start);
+            }
+        }
+    }
+}
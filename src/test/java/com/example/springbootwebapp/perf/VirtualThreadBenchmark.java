@@ -0,0 +1,100 @@
+package com.example.springbootwebapp.perf;
+
+import com.example.springbootwebapp.SpringBootWebAppApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//Boots the app on H2 once with platform threads and once with virtual threads, drives the same
+//closed-loop login + profile workload against each, and prints throughput and latency percentiles.
+//Run with: mvn test -Pbenchmark -Dtest=VirtualThreadBenchmark [-Dbenchmark.concurrency=200]
+@Tag("benchmark")
+class VirtualThreadBenchmark {
+    
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 100);
+    private static final int WARMUP_SECONDS = Integer.getInteger("benchmark.warmup", 10);
+    private static final int DURATION_SECONDS = Integer.getInteger("benchmark.duration", 30);
+    private static final int PROFILE_VIEWS_PER_LOGIN = 5;
+    
+    @Test
+    void compareThreadModes() throws Exception {
+        List<LatencyStats.Summary> platform = runMode(false);
+        List<LatencyStats.Summary> virtual = runMode(true);
+        
+        System.out.println();
+        System.out.println("Concurrency " + CONCURRENCY + ", " + DURATION_SECONDS + "s measured per mode");
+        print("Platform threads", platform);
+        print("Virtual threads", virtual);
+        
+        assertTrue(platform.stream().anyMatch(summary -> summary.requests() > 0));
+        assertTrue(virtual.stream().anyMatch(summary -> summary.requests() > 0));
+    }
+    
+    private List<LatencyStats.Summary> runMode(boolean virtualThreads) throws Exception {
+        //The virtual run activates the shipped virtual profile, so it is measured with that profile's
+        //connection pool settings; the platform run keeps the defaults
+        String mode = virtualThreads ? "virtual" : "platform";
+        SpringApplicationBuilder application = new SpringApplicationBuilder(SpringBootWebAppApplication.class);
+        if (virtualThreads) {
+            application.properties("spring.profiles.active=virtual");
+        }
+        try (ConfigurableApplicationContext context = application
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "app.security.bcrypt.strength=10",
+                        "app.security.login-throttle.enabled=false",
+                        "app.scheduling.enabled=true",
+                        "logging.level.root=WARN")
+                .run()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            drive(baseUrl, new LatencyStats(), WARMUP_SECONDS);
+            LatencyStats stats = new LatencyStats();
+            drive(baseUrl, stats, DURATION_SECONDS);
+            return stats.summarize(DURATION_SECONDS);
+        }
+    }
+    
+    private void drive(String baseUrl, LatencyStats stats, int seconds) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < CONCURRENCY; i++) {
+                running.add(clients.submit(() -> {
+                    WebClientSession session = new WebClientSession(baseUrl, stats);
+                    while (System.nanoTime() < deadline) {
+                        session.clearCookies();
+                        if (!session.login("user", "user123")) {
+                            continue;
+                        }
+                        for (int view = 0; view < PROFILE_VIEWS_PER_LOGIN && System.nanoTime() < deadline; view++) {
+                            session.get("GET /profile", "/profile");
+                        }
+                    }
+                }));
+            }
+            for (Future<?> client : running) {
+                client.get();
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+    
+    private void print(String title, List<LatencyStats.Summary> summaries) {
+        System.out.println(title);
+        System.out.println(LatencyStats.Summary.header());
+        summaries.forEach(System.out::println);
+    }
+}
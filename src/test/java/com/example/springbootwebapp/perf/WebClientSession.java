@@ -0,0 +1,96 @@
+package com.example.springbootwebapp.perf;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+//One simulated browser: its own cookie jar (session + CSRF), no automatic redirects, timed requests
+public class WebClientSession {
+    
+    private static final Pattern CSRF_FIELD = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+    
+    private final String baseUrl;
+    private final LatencyStats stats;
+    private final CookieManager cookies = new CookieManager();
+    private final HttpClient client;
+    
+    public WebClientSession(String baseUrl, LatencyStats stats) {
+        this.baseUrl = baseUrl;
+        this.stats = stats;
+        this.client = HttpClient.newBuilder()
+                .cookieHandler(cookies)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+    
+    public HttpResponse<String> get(String label, String path) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        return send(label, request);
+    }
+    
+    public HttpResponse<String> postForm(String label, String path, Map<String, String> form) {
+        String body = form.entrySet().stream()
+                .map(entry -> encode(entry.getKey()) + "=" + encode(entry.getValue()))
+                .collect(Collectors.joining("&"));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return send(label, request);
+    }
+    
+    //GET /login then POST the credentials with the page's CSRF token; true when redirected to /profile
+    public boolean login(String username, String password) {
+        HttpResponse<String> page = get("GET /login", "/login");
+        String token = page == null ? null : csrfToken(page.body());
+        if (token == null) {
+            return false;
+        }
+        HttpResponse<String> response = postForm("POST /login", "/login",
+                Map.of("username", username, "password", password, "_csrf", token));
+        return response != null && response.headers().firstValue("Location").orElse("").endsWith("/profile");
+    }
+    
+    //Starts over as a new visitor without paying for a new HttpClient and its connections
+    public void clearCookies() {
+        cookies.getCookieStore().removeAll();
+    }
+    
+    public static String csrfToken(String html) {
+        Matcher matcher = CSRF_FIELD.matcher(html);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+    
+    private HttpResponse<String> send(String label, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            stats.record(label, System.nanoTime() - start);
+            if (response.statusCode() >= 400) {
+                stats.recordError(label);
+            }
+            return response;
+        } catch (IOException e) {
+            stats.recordError(label);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+    
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
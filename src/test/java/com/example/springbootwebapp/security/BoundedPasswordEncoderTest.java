@@ -0,0 +1,117 @@
+package com.example.springbootwebapp.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+    
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+    
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.destroy();
+    }
+    
+    @Test
+    void encode_DelegatesOnHashingPool() {
+        //Arrange
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(new CountDownLatch(0)), 1, 1, Duration.ofSeconds(5));
+        
+        //Act
+        String encoded = encoder.encode("secret");
+        
+        //Assert
+        assertEquals("hashed:secret", encoded);
+        assertTrue(encoder.matches("secret", encoded));
+    }
+    
+    @Test
+    void encode_BoundToRegistry_RecordsQueueWaitSeparately() {
+        //Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(new CountDownLatch(0)), 1, 1, Duration.ofSeconds(5));
+        encoder.bindTo(registry);
+        
+        //Act
+        encoder.encode("secret");
+        encoder.matches("secret", "hashed:secret");
+        
+        //Assert
+        assertEquals(2, registry.get("app.password.hash.queue.wait").timer().count());
+        assertEquals(1, registry.get("app.password.hash").tag("operation", "encode").timer().count());
+    }
+    
+    @Test
+    void encode_PoolAndQueueFull_RejectsImmediately() throws Exception {
+        //Arrange
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(release), 1, 1, Duration.ofSeconds(30));
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        awaitCondition(() -> encoder.getActiveCount() == 1);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        awaitCondition(() -> encoder.getQueueDepth() == 1);
+        
+        //Act & Assert
+        PasswordHashingUnavailableException exception = assertThrows(PasswordHashingUnavailableException.class,
+                () -> encoder.encode("third"));
+        assertTrue(exception.getRetryAfterSeconds() >= 1);
+        assertEquals(1, encoder.getRejectedCount());
+        
+        release.countDown();
+        assertEquals("hashed:first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed:second", queued.get(5, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    void encode_WaitExceedsTimeout_FailsFast() {
+        //Arrange
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(release), 1, 1, Duration.ofMillis(50));
+        
+        //Act & Assert
+        assertThrows(PasswordHashingUnavailableException.class, () -> encoder.encode("slow"));
+        assertEquals(1, encoder.getTimedOutCount());
+    }
+    
+    private void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not reached in time");
+            Thread.sleep(5);
+        }
+    }
+    
+    private static class BlockingEncoder implements PasswordEncoder {
+        
+        private final CountDownLatch latch;
+        
+        BlockingEncoder(CountDownLatch latch) {
+            this.latch = latch;
+        }
+        
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed:" + rawPassword;
+        }
+        
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals(encode(rawPassword));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.springbootwebapp.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.authentication.event.AuthenticationFailureServiceExceptionEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginMetricsListenerTest {
+    
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LoginMetricsListener listener = new LoginMetricsListener(registry);
+    
+    @Test
+    void onSuccessAndFailure_CountsByOutcomeAndReason() {
+        //Arrange
+        UsernamePasswordAuthenticationToken attempt = UsernamePasswordAuthenticationToken.unauthenticated("user", "pw");
+        UsernamePasswordAuthenticationToken authenticated =
+                UsernamePasswordAuthenticationToken.authenticated("user", null, List.of());
+        
+        //Act
+        listener.onSuccess(new AuthenticationSuccessEvent(authenticated));
+        listener.onFailure(new AuthenticationFailureBadCredentialsEvent(attempt, new BadCredentialsException("bad")));
+        listener.onFailure(new AuthenticationFailureBadCredentialsEvent(attempt, new BadCredentialsException("bad")));
+        listener.onFailure(new AuthenticationFailureServiceExceptionEvent(attempt,
+                new PasswordHashingUnavailableException("busy", 3, null)));
+        
+        //Assert
+        assertEquals(1, registry.get("app.login.attempts").tag("outcome", "success").counter().count());
+        assertEquals(2, registry.get("app.login.attempts").tag("reason", "BadCredentialsException").counter().count());
+        assertEquals(1, registry.get("app.login.attempts")
+                .tag("reason", "PasswordHashingUnavailableException").counter().count());
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.springbootwebapp.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleFilterTest {
+    
+    private final LoginThrottle throttle = new LoginThrottle(
+            new LoginThrottle.Limit(2, Duration.ofMinutes(1)),
+            new LoginThrottle.Limit(10, Duration.ofSeconds(1)),
+            1000, () -> 0L);
+    private final LoginThrottleFilter filter = LoginThrottleFilter.forHttpBasic(throttle);
+    
+    @Test
+    void forHttpBasic_OverUserCapacity_TooManyRequests() throws Exception {
+        //Arrange
+        for (int i = 0; i < 2; i++) {
+            assertEquals(200, send(basic("admin", "guess" + i)).getStatus());
+        }
+        
+        //Act
+        MockHttpServletResponse response = send(basic("ADMIN", "guess"));
+        
+        //Assert
+        assertEquals(429, response.getStatus());
+        assertEquals("60", response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+    
+    @Test
+    void forHttpBasic_NoBasicCredentials_NotCounted() throws Exception {
+        //Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer token");
+        
+        //Act
+        for (int i = 0; i < 20; i++) {
+            assertEquals(200, send(request).getStatus());
+        }
+        
+        //Assert
+        assertEquals(0, throttle.getTrackedKeys());
+    }
+    
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+    
+    private static MockHttpServletRequest basic(String username, String password) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        String credentials = username + ":" + password;
+        request.addHeader(HttpHeaders.AUTHORIZATION,
+                "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+        return request;
+    }
+}
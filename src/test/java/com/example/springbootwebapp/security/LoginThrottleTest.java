@@ -0,0 +1,94 @@
+package com.example.springbootwebapp.security;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+    
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+    private final LoginThrottle throttle = new LoginThrottle(
+            new LoginThrottle.Limit(3, Duration.ofMinutes(1)),
+            new LoginThrottle.Limit(10, Duration.ofSeconds(1)),
+            1000, ticker);
+    
+    @Test
+    void tryAcquire_OverUserCapacity_RejectedUntilRefill() {
+        //Arrange
+        for (int i = 0; i < 3; i++) {
+            assertTrue(throttle.tryAcquire("victim", "10.0.0." + i).isEmpty());
+        }
+        
+        //Act
+        Optional<Duration> rejected = throttle.tryAcquire("VICTIM", "10.0.0.9");
+        nanos.addAndGet(Duration.ofMinutes(1).toNanos());
+        Optional<Duration> afterRefill = throttle.tryAcquire("victim", "10.0.0.9");
+        
+        //Assert
+        assertEquals(Optional.of(Duration.ofMinutes(1)), rejected);
+        assertTrue(afterRefill.isEmpty());
+    }
+    
+    @Test
+    void tryAcquire_OverIpCapacity_RejectedWithoutTouchingUserBuckets() {
+        //Arrange
+        for (int i = 0; i < 10; i++) {
+            assertTrue(throttle.tryAcquire("user" + i, "10.0.0.1").isEmpty());
+        }
+        
+        //Act & Assert
+        assertTrue(throttle.tryAcquire("victim", "10.0.0.1").isPresent());
+        for (int i = 0; i < 3; i++) {
+            assertTrue(throttle.tryAcquire("victim", "10.0.0.2").isEmpty());
+        }
+    }
+    
+    @Test
+    void onSuccess_ResetsUserBucket() {
+        //Arrange
+        for (int i = 0; i < 3; i++) {
+            throttle.tryAcquire("alice", "10.0.0.1");
+        }
+        
+        //Act
+        throttle.onSuccess(new AuthenticationSuccessEvent(new TestingAuthenticationToken("alice", null)));
+        
+        //Assert
+        assertTrue(throttle.tryAcquire("alice", "10.0.0.1").isEmpty());
+    }
+    
+    @Test
+    void tryAcquire_Concurrent_AdmitsExactlyCapacity() throws Exception {
+        //Arrange
+        LoginThrottle wide = new LoginThrottle(new LoginThrottle.Limit(100, Duration.ofMinutes(1)),
+                new LoginThrottle.Limit(1_000_000, Duration.ofMillis(1)), 1000, ticker);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        
+        //Act
+        for (int i = 0; i < 1000; i++) {
+            attempts.add(executor.submit(() -> wide.tryAcquire("target", "10.0.0.1").isEmpty()));
+        }
+        int admitted = 0;
+        for (Future<Boolean> attempt : attempts) {
+            admitted += attempt.get() ? 1 : 0;
+        }
+        executor.shutdown();
+        
+        //Assert
+        assertEquals(100, admitted);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.springbootwebapp.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SignedTokenCodecTest {
+    
+    private static final byte[] OLD_KEY = "old-secret-old-secret-old-secret".getBytes();
+    private static final byte[] NEW_KEY = "new-secret-new-secret-new-secret".getBytes();
+    private static final Clock NOW = Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC);
+    
+    private final SignedTokenCodec codec = new SignedTokenCodec(Map.of("k1", OLD_KEY), NOW);
+    
+    @Test
+    void verify_IssuedToken_ReturnsClaims() {
+        //Arrange
+        String token = codec.issue("jane.doe", List.of("ROLE_ADMIN"), Duration.ofHours(1));
+        
+        //Act
+        Optional<SignedTokenCodec.Claims> claims = codec.verify(token);
+        
+        //Assert
+        assertTrue(claims.isPresent());
+        assertEquals("jane.doe", claims.get().username());
+        assertEquals(List.of("ROLE_ADMIN"), claims.get().authorities());
+        assertEquals(NOW.instant().plus(Duration.ofHours(1)), claims.get().expiresAt());
+    }
+    
+    @Test
+    void verify_TamperedPayload_Rejected() {
+        //Arrange
+        String token = codec.issue("user", List.of("ROLE_USER"), Duration.ofHours(1));
+        String forged = codec.issue("user", List.of("ROLE_ADMIN"), Duration.ofHours(1));
+        String[] tokenParts = token.split("\\.");
+        String[] forgedParts = forged.split("\\.");
+        forgedParts[4] = tokenParts[4];
+        
+        //Act & Assert
+        assertTrue(codec.verify(String.join(".", forgedParts)).isEmpty());
+        assertTrue(codec.verify("not-a-token").isEmpty());
+    }
+    
+    @Test
+    void verify_Expired_Rejected() {
+        //Arrange
+        String token = codec.issue("user", List.of("ROLE_USER"), Duration.ofMinutes(5));
+        SignedTokenCodec later = new SignedTokenCodec(Map.of("k1", OLD_KEY), Clock.offset(NOW, Duration.ofMinutes(5)));
+        
+        //Act & Assert
+        assertTrue(later.verify(token).isEmpty());
+    }
+    
+    @Test
+    void verify_AfterRotation_AcceptsOldKeyAndSignsWithNew() {
+        //Arrange
+        String oldToken = codec.issue("user", List.of("ROLE_USER"), Duration.ofHours(1));
+        Map<String, byte[]> keys = new LinkedHashMap<>();
+        keys.put("k2", NEW_KEY);
+        keys.put("k1", OLD_KEY);
+        SignedTokenCodec rotated = new SignedTokenCodec(keys, NOW);
+        
+        //Act
+        String newToken = rotated.issue("user", List.of("ROLE_USER"), Duration.ofHours(1));
+        
+        //Assert
+        assertTrue(rotated.verify(oldToken).isPresent());
+        assertTrue(newToken.startsWith("k2."));
+        assertTrue(codec.verify(newToken).isEmpty());
+    }
+    
+    @Test
+    void constructor_ShortKey_Rejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SignedTokenCodec(Map.of("k1", "short".getBytes()), NOW));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.springbootwebapp.security;
+
+import com.example.springbootwebapp.dto.RegisterRequest;
+import com.example.springbootwebapp.repository.UserRepository;
+import com.example.springbootwebapp.service.UserService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "app.security.stateless.enabled=true",
+        "app.security.stateless.keys=test:dGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQ="
+})
+@AutoConfigureMockMvc
+class StatelessLoginTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @BeforeEach
+    void setUp() {
+        if (userRepository.existsByUsername("statelessuser")) {
+            return;
+        }
+        userService.registerUser(new RegisterRequest("statelessuser", "stateless@example.com", "password123", "Stateless User"));
+    }
+    
+    @Test
+    void login_IssuesSignedCookieWithoutSession() throws Exception {
+        //Act
+        MvcResult result = mockMvc.perform(formLogin().user("statelessuser").password("password123"))
+                .andExpect(redirectedUrl("/profile"))
+                .andReturn();
+        
+        //Assert
+        Cookie token = result.getResponse().getCookie(SignedCookieSecurityContextRepository.COOKIE_NAME);
+        assertNotNull(token);
+        assertTrue(token.isHttpOnly());
+        assertNull(result.getRequest().getSession(false));
+    }
+    
+    @Test
+    void profile_WithSignedCookie_AuthenticatedWithoutSession() throws Exception {
+        //Arrange
+        Cookie token = mockMvc.perform(formLogin().user("statelessuser").password("password123"))
+                .andReturn().getResponse().getCookie(SignedCookieSecurityContextRepository.COOKIE_NAME);
+        
+        //Act & Assert
+        mockMvc.perform(get("/profile").cookie(token))
+                .andExpect(status().isOk())
+                .andExpect(view().name("profile"));
+        mockMvc.perform(get("/profile").cookie(new Cookie(SignedCookieSecurityContextRepository.COOKIE_NAME, "forged")))
+                .andExpect(status().is3xxRedirection());
+    }
+}
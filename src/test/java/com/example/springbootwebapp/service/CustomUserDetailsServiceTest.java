@@ -0,0 +1,84 @@
+package com.example.springbootwebapp.service;
+
+import com.example.springbootwebapp.config.ReplicaStickiness;
+import com.example.springbootwebapp.event.UserUpdatedEvent;
+import com.example.springbootwebapp.model.Role;
+import com.example.springbootwebapp.model.User;
+import com.example.springbootwebapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomUserDetailsServiceTest {
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    private CustomUserDetailsService userDetailsService;
+    
+    @BeforeEach
+    void setUp() {
+        userDetailsService = new CustomUserDetailsService(userRepository,
+                new StaticListableBeanFactory().getBeanProvider(ReplicaStickiness.class), 100, Duration.ofMinutes(5));
+    }
+    
+    @Test
+    void loadUserByUsername_RepeatedLookups_QueryDatabaseOnce() {
+        //Arrange
+        when(userRepository.findByNaturalUsername("testuser")).thenReturn(Optional.of(testUser()));
+        
+        //Act
+        UserDetails first = userDetailsService.loadUserByUsername("testuser");
+        UserDetails second = userDetailsService.loadUserByUsername("testuser");
+        
+        //Assert
+        assertEquals("encodedPassword", second.getPassword());
+        assertNotSame(first, second);
+        assertEquals(1, userDetailsService.getCacheStats().hitCount());
+        assertEquals(1, userDetailsService.getCacheStats().missCount());
+        verify(userRepository, times(1)).findByNaturalUsername("testuser");
+    }
+    
+    @Test
+    void loadUserByUsername_UnknownUser_ThrowsAndIsNotCached() {
+        //Arrange
+        when(userRepository.findByNaturalUsername("ghost")).thenReturn(Optional.empty());
+        
+        //Act & Assert
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+        verify(userRepository, times(2)).findByNaturalUsername("ghost");
+    }
+    
+    @Test
+    void onUserUpdated_EvictsCachedEntry() {
+        //Arrange
+        when(userRepository.findByNaturalUsername("testuser")).thenReturn(Optional.of(testUser()));
+        userDetailsService.loadUserByUsername("testuser");
+        
+        //Act
+        userDetailsService.onUserUpdated(new UserUpdatedEvent("testuser"));
+        userDetailsService.loadUserByUsername("testuser");
+        
+        //Assert
+        verify(userRepository, times(2)).findByNaturalUsername("testuser");
+    }
+    
+    private User testUser() {
+        User user = new User("testuser", "test@example.com", "encodedPassword", "Test User", Role.USER);
+        user.setId(1L);
+        return user;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.springbootwebapp.service;
+
+import com.example.springbootwebapp.dto.ProfileUpdateRequest;
+import com.example.springbootwebapp.dto.RegisterRequest;
+import com.example.springbootwebapp.dto.UserChangeFeedPage;
+import com.example.springbootwebapp.dto.UserChangeResponse;
+import com.example.springbootwebapp.model.ChangeType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Scheduling is off in the tests, so rows stay unpublished until a test calls the publisher
+@SpringBootTest
+class UserChangeFeedTest {
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private UserChangePublisher publisher;
+    
+    @Autowired
+    private UserChangeFeedService feedService;
+    
+    @Test
+    void getChanges_AfterRegisterAndUpdate_ReturnsDeltasInOrder() {
+        //Arrange
+        publisher.publishPending();
+        long since = drain(0);
+        userService.registerUser(new RegisterRequest("feeduser", "feed@example.com", "password123", "Feed User"));
+        userService.updateProfile("feeduser", new ProfileUpdateRequest("Feed User Renamed", "feed@example.com"));
+        
+        //Act
+        UserChangeFeedPage beforePublish = feedService.getChanges(since, UserChangeFeedService.DEFAULT_LIMIT);
+        publisher.publishPending();
+        UserChangeFeedPage page = feedService.getChanges(since, UserChangeFeedService.DEFAULT_LIMIT);
+        
+        //Assert
+        assertTrue(beforePublish.getChanges().isEmpty());
+        assertEquals(since, beforePublish.getNext());
+        List<UserChangeResponse> changes = page.getChanges();
+        assertEquals(2, changes.size());
+        assertEquals(ChangeType.REGISTERED, changes.get(0).getType());
+        assertEquals("Feed User", changes.get(0).getFullName());
+        assertEquals(ChangeType.UPDATED, changes.get(1).getType());
+        assertEquals("Feed User Renamed", changes.get(1).getFullName());
+        assertTrue(changes.get(0).getPosition() < changes.get(1).getPosition());
+        assertEquals(changes.get(1).getPosition(), page.getNext());
+        assertFalse(page.isHasMore());
+    }
+    
+    @Test
+    void getChanges_UnchangedProfileResubmitted_RecordsNoChange() {
+        //Arrange
+        userService.registerUser(new RegisterRequest("idleuser", "idle@example.com", "password123", "Idle User"));
+        publisher.publishPending();
+        long since = drain(0);
+        
+        //Act
+        userService.updateProfile("idleuser", new ProfileUpdateRequest("Idle User", "idle@example.com"));
+        publisher.publishPending();
+        
+        //Assert
+        assertTrue(feedService.getChanges(since, UserChangeFeedService.DEFAULT_LIMIT).getChanges().isEmpty());
+    }
+    
+    @Test
+    void getChanges_SmallLimit_PagesWithHasMore() {
+        //Arrange
+        userService.registerUser(new RegisterRequest("pageone", "pageone@example.com", "password123", "Page One"));
+        userService.registerUser(new RegisterRequest("pagetwo", "pagetwo@example.com", "password123", "Page Two"));
+        publisher.publishPending();
+        
+        //Act
+        UserChangeFeedPage first = feedService.getChanges(0, 1);
+        UserChangeFeedPage second = feedService.getChanges(first.getNext(), 1);
+        
+        //Assert
+        assertEquals(1, first.getChanges().size());
+        assertTrue(first.isHasMore());
+        assertTrue(second.getChanges().get(0).getPosition() > first.getNext());
+    }
+    
+    //Follows the feed to its current end, as a downstream consumer would
+    private long drain(long since) {
+        UserChangeFeedPage page = feedService.getChanges(since, UserChangeFeedService.MAX_LIMIT);
+        while (page.isHasMore()) {
+            page = feedService.getChanges(page.getNext(), UserChangeFeedService.MAX_LIMIT);
+        }
+        return page.getNext();
+    }
+}
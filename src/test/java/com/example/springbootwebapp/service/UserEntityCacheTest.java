@@ -0,0 +1,86 @@
+package com.example.springbootwebapp.service;
+
+import com.example.springbootwebapp.dto.ProfileUpdateRequest;
+import com.example.springbootwebapp.dto.RegisterRequest;
+import com.example.springbootwebapp.dto.UserResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Statement counts are per SessionFactory; scheduling is off in the tests, so no outbox publisher
+//runs between clearing the statistics and reading them
+@SpringBootTest
+class UserEntityCacheTest {
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+    
+    @Test
+    void getUserByUsername_Repeated_ServedFromSecondLevelCache() {
+        //Arrange
+        userService.registerUser(new RegisterRequest("cacheduser", "cached@example.com", "password123", "Cached User"));
+        userService.getUserByUsername("cacheduser");
+        statistics.clear();
+        
+        //Act
+        userService.getUserByUsername("cacheduser");
+        
+        //Assert
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+    
+    @Test
+    void updateProfile_KeepsCacheCoherent() {
+        //Arrange
+        userService.registerUser(new RegisterRequest("staleuser", "stale@example.com", "password123", "Stale User"));
+        userService.getUserByUsername("staleuser");
+        
+        //Act
+        userService.updateProfile("staleuser", new ProfileUpdateRequest("Fresh User", "fresh@example.com"));
+        UserResponse response = userService.getUserByUsername("staleuser");
+        
+        //Assert
+        assertEquals("Fresh User", response.getFullName());
+        assertEquals("fresh@example.com", response.getEmail());
+    }
+    
+    @Test
+    void updatePassword_EvictsOnlyThatUser() {
+        //Arrange
+        userService.registerUser(new RegisterRequest("rehashuser", "rehash@example.com", "password123", "Rehash User"));
+        userService.registerUser(new RegisterRequest("bystanderuser", "bystander@example.com", "password123", "Bystander User"));
+        userService.getUserByUsername("rehashuser");
+        userService.getUserByUsername("bystanderuser");
+        UserResponse before = userService.getUserByUsername("rehashuser");
+        
+        //Act
+        userDetailsService.updatePassword(userDetailsService.loadUserByUsername("rehashuser"), "{rehashed}");
+        statistics.clear();
+        userService.getUserByUsername("bystanderuser");
+        
+        //Assert
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(before.getVersion(), userService.getUserByUsername("rehashuser").getVersion());
+        assertEquals("{rehashed}", userDetailsService.loadUserByUsername("rehashuser").getPassword());
+    }
+}
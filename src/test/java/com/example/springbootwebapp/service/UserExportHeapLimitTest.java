@@ -0,0 +1,71 @@
+package com.example.springbootwebapp.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Runs in the heap-limited-tests surefire execution (-Xmx128m). The export streams UserResponse
+//projections; this guards against it materialising the full result set, which for this many rows
+//needs well over that heap.
+@Tag("heap-limited")
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:file:./target/h2/export-heap-test;CACHE_SIZE=8192;LAZY_QUERY_EXECUTION=1")
+class UserExportHeapLimitTest {
+    
+    private static final int SYNTHETIC_USERS = 400_000;
+    
+    @Autowired
+    private UserExportService userExportService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void exportUsers_LargeTable_CompletesWithinSmallHeap() throws Exception {
+        //Arrange: the file database survives between runs, so start from a known set of rows
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE 'bulk%'");
+        jdbcTemplate.update("INSERT INTO users (username, email, password, full_name, role) "
+                + "SELECT 'bulk' || X, 'bulk' || X || '@example.com', 'not-a-hash', 'Bulk User ' || X, 'USER' "
+                + "FROM SYSTEM_RANGE(1, " + SYNTHETIC_USERS + ")");
+        long expected = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        CountingOutputStream csvOutput = new CountingOutputStream();
+        CountingOutputStream ndjsonOutput = new CountingOutputStream();
+        
+        //Act
+        long csvCount = userExportService.exportUsers(UserDataFormat.CSV, csvOutput);
+        long ndjsonCount = userExportService.exportUsers(UserDataFormat.NDJSON, ndjsonOutput);
+        
+        //Assert
+        assertEquals(expected, csvCount);
+        assertEquals(expected, ndjsonCount);
+        assertEquals(expected + 1, csvOutput.lines);
+        assertEquals(expected, ndjsonOutput.lines);
+    }
+    
+    private static class CountingOutputStream extends OutputStream {
+        
+        private long lines;
+        
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.springbootwebapp.service;
+
+import com.example.springbootwebapp.model.Role;
+import com.example.springbootwebapp.model.User;
+import com.example.springbootwebapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UserExportServiceTest {
+    
+    @Autowired
+    private UserExportService userExportService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Test
+    void exportUsers_Csv_QuotesFieldsAndOmitsPasswords() throws Exception {
+        //Arrange
+        userRepository.save(new User("exportcsv", "exportcsv@example.com", "secret-hash", "Smith, \"Jo\"", Role.USER));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        
+        //Act
+        long count = userExportService.exportUsers(UserDataFormat.CSV, output);
+        
+        //Assert
+        String csv = output.toString(StandardCharsets.UTF_8);
+        assertEquals(userRepository.count(), count);
+        assertTrue(csv.startsWith("id,username,email,fullName,role\n"));
+        assertTrue(csv.contains(",exportcsv,exportcsv@example.com,\"Smith, \"\"Jo\"\"\",USER\n"));
+        assertFalse(csv.contains("secret-hash"));
+    }
+    
+    @Test
+    void exportUsers_Csv_NeutralisesFormulaCells() throws Exception {
+        //Arrange
+        userRepository.save(new User("exportformula", "exportformula@example.com", "secret-hash",
+                "=HYPERLINK(\"http://evil.example\",\"x\")", Role.USER));
+        userRepository.save(new User("exportminus", "exportminus@example.com", "secret-hash", "-2+3", Role.USER));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        
+        //Act
+        userExportService.exportUsers(UserDataFormat.CSV, output);
+        
+        //Assert
+        String csv = output.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.contains(",exportformula,exportformula@example.com,\"'=HYPERLINK(\"\"http://evil.example\"\",\"\"x\"\")\",USER\n"));
+        assertTrue(csv.contains(",exportminus,exportminus@example.com,'-2+3,USER\n"));
+    }
+    
+    @Test
+    void exportUsers_Ndjson_WritesOneObjectPerLine() throws Exception {
+        //Arrange
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        
+        //Act
+        long count = userExportService.exportUsers(UserDataFormat.NDJSON, output);
+        
+        //Assert
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(count, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":"));
+        assertFalse(lines[0].contains("password"));
+    }
+}
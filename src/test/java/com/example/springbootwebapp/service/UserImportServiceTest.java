@@ -0,0 +1,65 @@
+package com.example.springbootwebapp.service;
+
+import com.example.springbootwebapp.dto.ImportResult;
+import com.example.springbootwebapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UserImportServiceTest {
+    
+    @Autowired
+    private UserImportService userImportService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Test
+    void importUsers_Csv_ImportsValidRowsAndReportsRowErrors() throws Exception {
+        //Arrange
+        String csv = "username,email,password,full_name\n"
+                + "csvuser1,csvuser1@example.com,password1,CSV User One\n"
+                + "\"csvuser2\",csvuser2@example.com,password2,\"Two, CSV User\"\n"
+                + "ab,not-an-email,123,\n"
+                + "csvuser1,another@example.com,password3,Duplicate Username\n";
+        
+        //Act
+        ImportResult result = userImportService.importUsers(stream(csv), UserDataFormat.CSV);
+        
+        //Assert
+        assertEquals(2, result.getImportedCount());
+        assertEquals(2, result.getFailedCount());
+        assertEquals(4, result.getErrors().get(0).getLineNumber());
+        assertEquals(5, result.getErrors().get(1).getLineNumber());
+        assertEquals("Username already exists", result.getErrors().get(1).getMessage());
+        assertEquals("Two, CSV User", userRepository.findByUsername("csvuser2").orElseThrow().getFullName());
+    }
+    
+    @Test
+    void importUsers_Ndjson_ImportsEachLine() throws Exception {
+        //Arrange
+        String ndjson = "{\"username\":\"jsonuser1\",\"email\":\"jsonuser1@example.com\",\"password\":\"password1\",\"fullName\":\"JSON One\"}\n"
+                + "not json\n"
+                + "{\"username\":\"jsonuser2\",\"email\":\"jsonuser2@example.com\",\"password\":\"password2\",\"fullName\":\"JSON Two\"}\n";
+        
+        //Act
+        ImportResult result = userImportService.importUsers(stream(ndjson), UserDataFormat.NDJSON);
+        
+        //Assert
+        assertEquals(2, result.getImportedCount());
+        assertEquals(1, result.getFailedCount());
+        assertEquals(2, result.getErrors().get(0).getLineNumber());
+        assertTrue(userRepository.findByUsername("jsonuser2").isPresent());
+    }
+    
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
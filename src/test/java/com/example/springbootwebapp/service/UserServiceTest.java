@@ -2,24 +2,39 @@ package com.example.springbootwebapp.service;
 
 import com.example.springbootwebapp.dto.ProfileUpdateRequest;
 import com.example.springbootwebapp.dto.RegisterRequest;
+import com.example.springbootwebapp.dto.UserPage;
 import com.example.springbootwebapp.dto.UserResponse;
+import com.example.springbootwebapp.dto.UserSearchResult;
+import com.example.springbootwebapp.event.UserRegisteredEvent;
+import com.example.springbootwebapp.model.ChangeType;
 import com.example.springbootwebapp.model.Role;
 import com.example.springbootwebapp.model.User;
+import com.example.springbootwebapp.model.UserChange;
+import com.example.springbootwebapp.repository.UserChangeRepository;
 import com.example.springbootwebapp.repository.UserRepository;
+import com.example.springbootwebapp.repository.UserSortField;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,9 +43,15 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
     
+    @Mock
+    private UserChangeRepository changeRepository;
+    
     @Mock
     private PasswordEncoder passwordEncoder;
     
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
     @InjectMocks
     private UserService userService;
     
@@ -57,10 +78,8 @@ class UserServiceTest {
     @Test
     void registerUser_Success() {
         //Arrange
-        when(userRepository.existsByUsername(registerRequest.getUsername())).thenReturn(false);
-        when(userRepository.existsByEmail(registerRequest.getEmail())).thenReturn(false);
         when(passwordEncoder.encode(registerRequest.getPassword())).thenReturn("encodedPassword");
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
         
         //Act
         UserResponse response = userService.registerUser(registerRequest);
@@ -68,13 +87,16 @@ class UserServiceTest {
         //Assert
         assertNotNull(response);
         assertEquals(testUser.getId(), response.getId());
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
+        verify(userRepository, never()).existsByUsername(any());
+        verify(eventPublisher, times(1)).publishEvent(any(UserRegisteredEvent.class));
+        verify(changeRepository, times(1)).save(argThat((UserChange change) -> change.getChangeType() == ChangeType.REGISTERED));
     }
     
     @Test
     void registerUser_UsernameExists_ThrowsException() {
         //Arrange
-        when(userRepository.existsByUsername(registerRequest.getUsername())).thenReturn(true);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(uniqueViolation(User.USERNAME_CONSTRAINT));
         
         //Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -82,14 +104,30 @@ class UserServiceTest {
         });
         
         assertEquals("Username already exists", exception.getMessage());
-        verify(userRepository, never()).save(any(User.class));
+        verify(eventPublisher, never()).publishEvent(any());
     }
     
     @Test
     void registerUser_EmailExists_ThrowsException() {
         //Arrange
-        when(userRepository.existsByUsername(registerRequest.getUsername())).thenReturn(false);
-        when(userRepository.existsByEmail(registerRequest.getEmail())).thenReturn(true);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(uniqueViolation(User.EMAIL_CONSTRAINT));
+        
+        //Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            userService.registerUser(registerRequest);
+        });
+        
+        assertEquals("Email already exists", exception.getMessage());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+    
+    @Test
+    void registerUser_ConstraintNameNotExtracted_FallsBackToDriverMessage() {
+        //Arrange
+        SQLException h2Error = new SQLException("Unique index or primary key violation: "
+                + "\"PUBLIC.UK_USERS_EMAIL_INDEX_4 ON PUBLIC.USERS(EMAIL NULLS FIRST) VALUES ( /* 1 */ 'a@b.c' )\"");
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(
+                new DataIntegrityViolationException("could not execute statement", h2Error));
         
         //Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -97,13 +135,30 @@ class UserServiceTest {
         });
         
         assertEquals("Email already exists", exception.getMessage());
-        verify(userRepository, never()).save(any(User.class));
+    }
+    
+    @Test
+    void updateProfile_StaleVersion_ThrowsWithoutSaving() {
+        //Arrange
+        testUser.setVersion(2L);
+        ProfileUpdateRequest updateRequest = new ProfileUpdateRequest("Updated Name", "updated@example.com");
+        updateRequest.setVersion(1L);
+        when(userRepository.findByNaturalUsername("testuser")).thenReturn(Optional.of(testUser));
+        
+        //Act & Assert
+        ObjectOptimisticLockingFailureException exception = assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> userService.updateProfile("testuser", updateRequest));
+        
+        assertEquals(UserService.STALE_PROFILE_MESSAGE, exception.getMessage());
+        assertEquals("Test User", testUser.getFullName());
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+        verify(changeRepository, never()).save(any());
     }
     
     @Test
     void getUserByUsername_Success() {
         //Arrange
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.findByNaturalUsername("testuser")).thenReturn(Optional.of(testUser));
         
         //Act
         UserResponse response = userService.getUserByUsername("testuser");
@@ -117,7 +172,7 @@ class UserServiceTest {
     @Test
     void getUserByUsername_NotFound_ThrowsException() {
         //Arrange
-        when(userRepository.findByUsername("nonexistent")).thenReturn(Optional.empty());
+        when(userRepository.findByNaturalUsername("nonexistent")).thenReturn(Optional.empty());
         
         //Act & Assert
         assertThrows(RuntimeException.class, () -> {
@@ -132,30 +187,37 @@ class UserServiceTest {
         updateRequest.setFullName("Updated Name");
         updateRequest.setEmail("updated@example.com");
         
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(userRepository.existsByEmail(updateRequest.getEmail())).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.findByNaturalUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
         
         //Act
         UserResponse response = userService.updateProfile("testuser", updateRequest);
         
         //Assert
         assertNotNull(response);
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
+        verify(userRepository, never()).existsByEmail(any());
     }
     
     @Test
-    void getAllUsers_Success() {
+    void updateProfile_EmailTaken_ThrowsException() {
         //Arrange
-        User user2 = new User();
-        user2.setId(2L);
-        user2.setUsername("user2");
-        user2.setEmail("user2@example.com");
-        user2.setPassword("password");
-        user2.setFullName("User Two");
-        user2.setRole(Role.USER);
+        ProfileUpdateRequest updateRequest = new ProfileUpdateRequest("Updated Name", "taken@example.com");
+        when(userRepository.findByNaturalUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(uniqueViolation(User.EMAIL_CONSTRAINT));
+        
+        //Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            userService.updateProfile("testuser", updateRequest);
+        });
         
-        when(userRepository.findAll()).thenReturn(Arrays.asList(testUser, user2));
+        assertEquals("Email already exists", exception.getMessage());
+    }
+    
+    @Test
+    void getAllUsers_Success() {
+        //Arrange
+        when(userRepository.findAllResponses()).thenReturn(Arrays.asList(createUser(1L, "testuser"), createUser(2L, "user2")));
         
         //Act
         List<UserResponse> users = userService.getAllUsers();
@@ -163,6 +225,101 @@ class UserServiceTest {
         //Assert
         assertNotNull(users);
         assertEquals(2, users.size());
-        verify(userRepository, times(1)).findAll();
+        verify(userRepository, times(1)).findAllResponses();
+        verify(userRepository, never()).findAll();
+    }
+    
+    @Test
+    void getUsersPage_FirstPage_HasNextButNoPrevious() {
+        //Arrange
+        when(userRepository.findKeysetPage(UserSortField.USERNAME, true, null, null, false, 3))
+                .thenReturn(Arrays.asList(createUser(1L, "testuser"), createUser(2L, "user2"), createUser(3L, "user3")));
+        
+        //Act
+        UserPage page = userService.getUsersPage("username", "asc", 2, null, null);
+        
+        //Assert
+        assertEquals(2, page.getUsers().size());
+        assertEquals("testuser", page.getUsers().get(0).getUsername());
+        assertTrue(page.hasNext());
+        assertFalse(page.hasPrevious());
+    }
+    
+    @Test
+    void getUsersPage_FollowingNextCursor_SeeksPastLastRow() {
+        //Arrange
+        when(userRepository.findKeysetPage(UserSortField.USERNAME, true, null, null, false, 3))
+                .thenReturn(Arrays.asList(createUser(1L, "testuser"), createUser(2L, "user2"), createUser(3L, "user3")));
+        String next = userService.getUsersPage("username", "asc", 2, null, null).getNextCursor();
+        when(userRepository.findKeysetPage(UserSortField.USERNAME, true, "user2", 2L, false, 3))
+                .thenReturn(List.of(createUser(3L, "user3")));
+        
+        //Act
+        UserPage page = userService.getUsersPage("username", "asc", 2, next, null);
+        
+        //Assert
+        assertEquals(1, page.getUsers().size());
+        assertFalse(page.hasNext());
+        assertTrue(page.hasPrevious());
+    }
+    
+    @Test
+    void getUsersPage_PreviousCursor_ReturnsRowsInDisplayOrder() {
+        //Arrange
+        when(userRepository.findKeysetPage(UserSortField.ID, true, null, 3L, true, 3))
+                .thenReturn(Arrays.asList(createUser(2L, "user2"), createUser(1L, "testuser")));
+        
+        //Act
+        UserPage page = userService.getUsersPage("id", "asc", 2, null, encodedIdCursor(3L));
+        
+        //Assert
+        assertEquals(1L, page.getUsers().get(0).getId());
+        assertEquals(2L, page.getUsers().get(1).getId());
+        assertTrue(page.hasNext());
+        assertFalse(page.hasPrevious());
+    }
+    
+    @Test
+    void searchUsers_EscapesWildcardsAndMatchesSubstrings() {
+        //Arrange
+        when(userRepository.search("a_b%", "a\\_b\\%%", "%a\\_b\\%%", PageRequest.of(1, 2)))
+                .thenReturn(new SliceImpl<>(List.of(createUser(1L, "testuser")), PageRequest.of(1, 2), true));
+        
+        //Act
+        UserSearchResult result = userService.searchUsers("  A_b%  ", 1, 2);
+        
+        //Assert
+        assertEquals("A_b%", result.getQuery());
+        assertEquals(1, result.getUsers().size());
+        assertTrue(result.hasNext());
+        assertTrue(result.hasPrevious());
+    }
+    
+    @Test
+    void searchUsers_ShortTerm_MatchesPrefixesOnly() {
+        //Arrange
+        when(userRepository.search("ab", "ab%", "ab%", PageRequest.of(0, UserService.DEFAULT_PAGE_SIZE)))
+                .thenReturn(new SliceImpl<>(List.of()));
+        
+        //Act
+        UserSearchResult result = userService.searchUsers("ab", 0, UserService.DEFAULT_PAGE_SIZE);
+        
+        //Assert
+        assertTrue(result.getUsers().isEmpty());
+        assertFalse(result.hasNext());
+        assertFalse(result.hasPrevious());
+    }
+    
+    private DataIntegrityViolationException uniqueViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate key", new SQLException("duplicate key"), constraintName));
+    }
+    
+    private String encodedIdCursor(Long id) {
+        return new UserPageCursor(id, null).encode();
+    }
+    
+    private UserResponse createUser(Long id, String username) {
+        return new UserResponse(id, username, username + "@example.com", username, Role.USER);
     }
 }
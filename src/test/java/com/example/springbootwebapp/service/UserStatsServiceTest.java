@@ -0,0 +1,72 @@
+package com.example.springbootwebapp.service;
+
+import com.example.springbootwebapp.event.UserRegisteredEvent;
+import com.example.springbootwebapp.model.Role;
+import com.example.springbootwebapp.repository.RoleCount;
+import com.example.springbootwebapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserStatsServiceTest {
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    private UserStatsService userStatsService;
+    
+    @BeforeEach
+    void setUp() {
+        userStatsService = new UserStatsService(userRepository);
+    }
+    
+    @Test
+    void reconcile_LoadsCountsFromDatabase() {
+        //Arrange
+        when(userRepository.countUsersByRole()).thenReturn(List.of(roleCount(Role.USER, 41L), roleCount(Role.ADMIN, 1L)));
+        
+        //Act
+        userStatsService.reconcile();
+        
+        //Assert
+        assertEquals(42L, userStatsService.getTotalUsers());
+        assertEquals(41L, userStatsService.getRoleCounts().get(Role.USER));
+        assertEquals(1L, userStatsService.getRoleCounts().get(Role.ADMIN));
+    }
+    
+    @Test
+    void onUserRegistered_IncrementsRoleAndTotal() {
+        //Arrange
+        when(userRepository.countUsersByRole()).thenReturn(List.of(roleCount(Role.USER, 5L)));
+        userStatsService.reconcile();
+        
+        //Act
+        userStatsService.onUserRegistered(new UserRegisteredEvent("newuser", Role.USER));
+        
+        //Assert
+        assertEquals(6L, userStatsService.getTotalUsers());
+        assertEquals(0L, userStatsService.getRoleCounts().get(Role.ADMIN));
+    }
+    
+    private RoleCount roleCount(Role role, Long total) {
+        return new RoleCount() {
+            @Override
+            public Role getRole() {
+                return role;
+            }
+            
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+}